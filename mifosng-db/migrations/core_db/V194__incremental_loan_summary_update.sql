@@ -0,0 +1,27 @@
+CREATE TABLE `job_checkpoint` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`job_name` VARCHAR(100) NOT NULL,
+	`checkpoint_key` VARCHAR(100) NOT NULL,
+	`checkpoint_time` DATETIME NULL DEFAULT NULL,
+	`last_processed_id` BIGINT(20) NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	UNIQUE INDEX `UQ_job_checkpoint_job_name_key` (`job_name`, `checkpoint_key`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+CREATE TABLE `m_loan_summary_dirty` (
+	`loan_id` BIGINT(20) NOT NULL,
+	PRIMARY KEY (`loan_id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+ALTER TABLE `m_loan_repayment_schedule`
+	ADD INDEX `IDX_m_loan_repayment_schedule_lastmodified_date` (`lastmodified_date`);
+
+ALTER TABLE `job_run_history`
+	ADD COLUMN `rows_processed` BIGINT(20) NULL DEFAULT NULL AFTER `error_log`,
+	ADD COLUMN `elapsed_time_millis` BIGINT(20) NULL DEFAULT NULL AFTER `rows_processed`;
+
+INSERT INTO `c_configuration` (`name`, `value`, `enabled`) VALUES ('incremental-loan-summary-update', 1000, 0);
@@ -0,0 +1,9 @@
+CREATE TABLE `m_loan_arrears_aging_dirty` (
+	`loan_id` BIGINT(20) NOT NULL,
+	PRIMARY KEY (`loan_id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+ALTER TABLE `m_loan_repayment_schedule`
+	ADD INDEX `IDX_m_loan_repayment_schedule_duedate` (`duedate`);
@@ -0,0 +1 @@
+INSERT INTO `c_configuration` (`name`, `value`, `enabled`) VALUES ('job-partition-concurrency-per-tenant', 4, 1);
@@ -0,0 +1,2 @@
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`)
+VALUES ('configuration', 'READ_DATASOURCEPOOL', 'DATASOURCEPOOL', 'READ', 0);
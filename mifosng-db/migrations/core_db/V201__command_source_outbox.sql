@@ -0,0 +1,26 @@
+CREATE TABLE `m_portfolio_command_source_outbox` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`action_name` VARCHAR(50) NOT NULL,
+	`entity_name` VARCHAR(50) NOT NULL,
+	`office_id` BIGINT(20) NULL DEFAULT NULL,
+	`group_id` BIGINT(20) NULL DEFAULT NULL,
+	`client_id` BIGINT(20) NULL DEFAULT NULL,
+	`loan_id` BIGINT(20) NULL DEFAULT NULL,
+	`savings_account_id` BIGINT(20) NULL DEFAULT NULL,
+	`api_get_url` VARCHAR(100) NOT NULL,
+	`resource_id` BIGINT(20) NULL DEFAULT NULL,
+	`subresource_id` BIGINT(20) NULL DEFAULT NULL,
+	`command_as_json` TEXT NOT NULL,
+	`maker_id` BIGINT(20) NOT NULL,
+	`made_on_date` DATETIME NOT NULL,
+	`processing_result_enum` SMALLINT(5) NOT NULL,
+	`product_id` BIGINT(20) NULL DEFAULT NULL,
+	`transaction_id` VARCHAR(100) NULL DEFAULT NULL,
+	PRIMARY KEY (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `c_configuration` (`name`, `value`, `enabled`) VALUES ('write-behind-audit', NULL, 0);
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `scheduler_group`) VALUES ('Transfer Audit Entries', 'Transfer Audit Entries', '0 0/1 * 1/1 * ? *', now(), 5, 0);
@@ -0,0 +1,2 @@
+ALTER TABLE `m_loan`
+	ADD COLUMN `interest_recalculated_on` DATE NULL DEFAULT NULL AFTER `is_npa`;
@@ -0,0 +1,18 @@
+CREATE TABLE `m_report_run` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`report_name` VARCHAR(100) NOT NULL,
+	`output_type` VARCHAR(10) NOT NULL,
+	`status` VARCHAR(20) NOT NULL,
+	`submitted_by` BIGINT(20) NOT NULL,
+	`submitted_on` DATETIME NOT NULL,
+	`started_on` DATETIME NULL DEFAULT NULL,
+	`completed_on` DATETIME NULL DEFAULT NULL,
+	`content_type` VARCHAR(100) NULL DEFAULT NULL,
+	`file_size` BIGINT(20) NULL DEFAULT NULL,
+	`error_message` VARCHAR(1000) NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `FK_m_report_run_m_appuser` (`submitted_by`),
+	CONSTRAINT `FK_m_report_run_m_appuser` FOREIGN KEY (`submitted_by`) REFERENCES `m_appuser` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
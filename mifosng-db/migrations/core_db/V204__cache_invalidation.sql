@@ -0,0 +1,11 @@
+CREATE TABLE `m_cache_invalidation` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`origin_node_id` VARCHAR(36) NOT NULL,
+	`cache_name` VARCHAR(200) NOT NULL,
+	`cache_key` VARCHAR(500) NULL DEFAULT NULL,
+	`created_on` DATETIME NOT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `IND_m_cache_invalidation_created_on` (`created_on`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
@@ -0,0 +1,10 @@
+-- daily balances are maintained by the running balance job from now on and
+-- only hold entries whose running balance is calculated
+DELETE FROM `acc_gl_journal_entry_daily_balance`;
+
+INSERT INTO `acc_gl_journal_entry_daily_balance` (`office_id`, `account_id`, `currency_code`, `entry_date`, `debit_amount`, `credit_amount`)
+SELECT je.office_id, je.account_id, je.currency_code, je.entry_date,
+	SUM(IF(je.type_enum = 2, je.amount, 0)), SUM(IF(je.type_enum = 1, je.amount, 0))
+FROM acc_gl_journal_entry je
+WHERE je.is_running_balance_calculated = 1
+GROUP BY je.office_id, je.account_id, je.currency_code, je.entry_date;
@@ -0,0 +1,6 @@
+ALTER TABLE `m_report_run`
+	ADD COLUMN `run_on_node` VARCHAR(100) NULL DEFAULT NULL AFTER `submitted_on`,
+	ADD INDEX `idx_report_run_node_status` (`run_on_node`, `status`),
+	ADD INDEX `idx_report_run_submitted_on` (`submitted_on`);
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `scheduler_group`) VALUES ('Delete Expired Report Runs', 'Delete Expired Report Runs', '0 30 2 1/1 * ? *', now(), 5, 0);
@@ -0,0 +1,44 @@
+/*The dirty loan tables become queues: one row per schedule change, drained by the exact ids read*/
+ALTER TABLE `m_loan_summary_dirty`
+	DROP PRIMARY KEY,
+	ADD COLUMN `id` BIGINT(20) NOT NULL AUTO_INCREMENT FIRST,
+	ADD PRIMARY KEY (`id`),
+	ADD INDEX `IDX_m_loan_summary_dirty_loan_id` (`loan_id`);
+
+ALTER TABLE `m_loan_arrears_aging_dirty`
+	DROP PRIMARY KEY,
+	ADD COLUMN `id` BIGINT(20) NOT NULL AUTO_INCREMENT FIRST,
+	ADD PRIMARY KEY (`id`),
+	ADD INDEX `IDX_m_loan_arrears_aging_dirty_loan_id` (`loan_id`);
+
+/*Changed loans are now captured by the triggers below instead of by modification time*/
+ALTER TABLE `m_loan_repayment_schedule`
+	DROP INDEX `IDX_m_loan_repayment_schedule_lastmodified_date`;
+
+drop trigger if exists m_loan_repayment_schedule_after_insert;
+drop trigger if exists m_loan_repayment_schedule_after_update;
+drop trigger if exists m_loan_repayment_schedule_after_delete;
+
+delimiter #
+create trigger m_loan_repayment_schedule_after_insert after insert on m_loan_repayment_schedule
+for each row
+begin
+	insert into m_loan_summary_dirty (loan_id) values (NEW.loan_id);
+	insert into m_loan_arrears_aging_dirty (loan_id) values (NEW.loan_id);
+end#
+
+create trigger m_loan_repayment_schedule_after_update after update on m_loan_repayment_schedule
+for each row
+begin
+	insert into m_loan_summary_dirty (loan_id) values (NEW.loan_id);
+	insert into m_loan_arrears_aging_dirty (loan_id) values (NEW.loan_id);
+end#
+
+create trigger m_loan_repayment_schedule_after_delete after delete on m_loan_repayment_schedule
+for each row
+begin
+	insert into m_loan_summary_dirty (loan_id) values (OLD.loan_id);
+	insert into m_loan_arrears_aging_dirty (loan_id) values (OLD.loan_id);
+end#
+
+delimiter ;
@@ -0,0 +1,22 @@
+/*Entries still waiting in the outbox are moved with the ids of the main table before ids are shared*/
+INSERT INTO `m_portfolio_command_source` (`action_name`, `entity_name`, `office_id`, `group_id`, `client_id`, `loan_id`, `savings_account_id`, `api_get_url`, `resource_id`, `subresource_id`, `command_as_json`, `maker_id`, `made_on_date`, `processing_result_enum`, `product_id`, `transaction_id`)
+SELECT `action_name`, `entity_name`, `office_id`, `group_id`, `client_id`, `loan_id`, `savings_account_id`, `api_get_url`, `resource_id`, `subresource_id`, `command_as_json`, `maker_id`, `made_on_date`, `processing_result_enum`, `product_id`, `transaction_id`
+FROM `m_portfolio_command_source_outbox` ORDER BY `id`;
+
+DELETE FROM `m_portfolio_command_source_outbox`;
+
+/*Outbox entries keep the audit id allocated when they are written; checker columns let audit reads treat both tables alike*/
+ALTER TABLE `m_portfolio_command_source_outbox`
+	MODIFY COLUMN `id` BIGINT(20) NOT NULL,
+	ADD COLUMN `checker_id` BIGINT(20) NULL DEFAULT NULL AFTER `made_on_date`,
+	ADD COLUMN `checked_on_date` DATETIME NULL DEFAULT NULL AFTER `checker_id`;
+
+/*Hands out the ids of all new audit entries, whichever table they are written to first*/
+CREATE TABLE `m_portfolio_command_source_id` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	PRIMARY KEY (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `m_portfolio_command_source_id` (`id`) SELECT IFNULL(MAX(`id`), 0) + 1 FROM `m_portfolio_command_source`;
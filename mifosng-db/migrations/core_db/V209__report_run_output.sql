@@ -0,0 +1,14 @@
+/*Report output is kept in the tenant database so that any node can serve it, whichever node ran the report*/
+CREATE TABLE `m_report_run_output` (
+	`report_run_id` BIGINT(20) NOT NULL,
+	`content` LONGBLOB NOT NULL,
+	PRIMARY KEY (`report_run_id`),
+	CONSTRAINT `FK_m_report_run_output_m_report_run` FOREIGN KEY (`report_run_id`) REFERENCES `m_report_run` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+/*Identical runs are found across nodes by a digest of the tenant, user, report, output type, locale and parameters*/
+ALTER TABLE `m_report_run`
+	ADD COLUMN `run_key` CHAR(40) NULL DEFAULT NULL AFTER `output_type`,
+	ADD INDEX `idx_report_run_key_status` (`run_key`, `status`);
@@ -0,0 +1,51 @@
+drop trigger if exists m_loan_repayment_schedule_after_insert;
+drop trigger if exists m_loan_repayment_schedule_after_update;
+drop trigger if exists m_loan_repayment_schedule_after_delete;
+
+/*The dirty loan tables hold one row per loan again; a change to a loan already recorded bumps its version instead of adding a row*/
+DELETE dl FROM `m_loan_summary_dirty` dl JOIN `m_loan_summary_dirty` newer ON newer.`loan_id` = dl.`loan_id` AND newer.`id` > dl.`id`;
+
+ALTER TABLE `m_loan_summary_dirty`
+	DROP INDEX `IDX_m_loan_summary_dirty_loan_id`,
+	DROP COLUMN `id`,
+	ADD COLUMN `version` BIGINT(20) NOT NULL DEFAULT 1 AFTER `loan_id`,
+	ADD PRIMARY KEY (`loan_id`);
+
+DELETE dl FROM `m_loan_arrears_aging_dirty` dl JOIN `m_loan_arrears_aging_dirty` newer ON newer.`loan_id` = dl.`loan_id` AND newer.`id` > dl.`id`;
+
+ALTER TABLE `m_loan_arrears_aging_dirty`
+	DROP INDEX `IDX_m_loan_arrears_aging_dirty_loan_id`,
+	DROP COLUMN `id`,
+	ADD COLUMN `version` BIGINT(20) NOT NULL DEFAULT 1 AFTER `loan_id`,
+	ADD PRIMARY KEY (`loan_id`);
+
+/*Changed loans are only recorded for the summary while it is updated incrementally; otherwise every loan is recomputed anyway*/
+delimiter #
+create trigger m_loan_repayment_schedule_after_insert after insert on m_loan_repayment_schedule
+for each row
+begin
+	if (select enabled from c_configuration where name = 'incremental-loan-summary-update') = 1 then
+		insert into m_loan_summary_dirty (loan_id) values (NEW.loan_id) on duplicate key update version = version + 1;
+	end if;
+	insert into m_loan_arrears_aging_dirty (loan_id) values (NEW.loan_id) on duplicate key update version = version + 1;
+end#
+
+create trigger m_loan_repayment_schedule_after_update after update on m_loan_repayment_schedule
+for each row
+begin
+	if (select enabled from c_configuration where name = 'incremental-loan-summary-update') = 1 then
+		insert into m_loan_summary_dirty (loan_id) values (NEW.loan_id) on duplicate key update version = version + 1;
+	end if;
+	insert into m_loan_arrears_aging_dirty (loan_id) values (NEW.loan_id) on duplicate key update version = version + 1;
+end#
+
+create trigger m_loan_repayment_schedule_after_delete after delete on m_loan_repayment_schedule
+for each row
+begin
+	if (select enabled from c_configuration where name = 'incremental-loan-summary-update') = 1 then
+		insert into m_loan_summary_dirty (loan_id) values (OLD.loan_id) on duplicate key update version = version + 1;
+	end if;
+	insert into m_loan_arrears_aging_dirty (loan_id) values (OLD.loan_id) on duplicate key update version = version + 1;
+end#
+
+delimiter ;
@@ -0,0 +1,18 @@
+-- pool sizing and eviction settings are only applied when set for a tenant,
+-- the tomcat jdbc pool defaults (max active 100) apply otherwise
+ALTER TABLE `tenants`
+  MODIFY COLUMN `pool_max_active` int(5) NULL DEFAULT NULL,
+  MODIFY COLUMN `pool_min_idle` int(5) NULL DEFAULT NULL,
+  MODIFY COLUMN `pool_max_idle` int(5) NULL DEFAULT NULL,
+  MODIFY COLUMN `pool_suspect_timeout` int(5) NULL DEFAULT NULL,
+  MODIFY COLUMN `pool_time_between_eviction_runs_millis` int(11) NULL DEFAULT NULL,
+  MODIFY COLUMN `pool_min_evictable_idle_time_millis` int(11) NULL DEFAULT NULL;
+
+-- these settings were never applied before, so values left at the old column
+-- defaults were not chosen for the tenant
+UPDATE `tenants` SET `pool_max_active` = NULL WHERE `pool_max_active` = 40;
+UPDATE `tenants` SET `pool_min_idle` = NULL WHERE `pool_min_idle` = 20;
+UPDATE `tenants` SET `pool_max_idle` = NULL WHERE `pool_max_idle` = 10;
+UPDATE `tenants` SET `pool_suspect_timeout` = NULL WHERE `pool_suspect_timeout` = 60;
+UPDATE `tenants` SET `pool_time_between_eviction_runs_millis` = NULL WHERE `pool_time_between_eviction_runs_millis` = 34000;
+UPDATE `tenants` SET `pool_min_evictable_idle_time_millis` = NULL WHERE `pool_min_evictable_idle_time_millis` = 60000;
@@ -60,11 +60,15 @@ public class GLAccountReadPlatformServiceImpl implements GLAccountReadPlatformSe
                     .append(nameDecoratedBaseOnHierarchy).append(" as nameDecorated, ")
                     .append("cv.id as codeId, cv.code_value as codeValue ");
             if (this.associationParametersData.isRunningBalanceRequired()) {
-                sb.append(",gl_j.organization_running_balance as organizationRunningBalance ");
+                sb.append(",case when gl.classification_enum in (").append(GLAccountType.ASSET.getValue()).append(",")
+                        .append(GLAccountType.EXPENSE.getValue()).append(") then gl_j.debitAmount - gl_j.creditAmount ")
+                        .append("else gl_j.creditAmount - gl_j.debitAmount end as organizationRunningBalance ");
             }
             sb.append("from acc_gl_account gl left join m_code_value cv on tag_id=cv.id ");
             if (this.associationParametersData.isRunningBalanceRequired()) {
-                sb.append("left outer Join acc_gl_journal_entry gl_j on gl_j.account_id = gl.id");
+                sb.append("left outer join (select db.account_id as accountId, sum(db.debit_amount) as debitAmount, ")
+                        .append("sum(db.credit_amount) as creditAmount from acc_gl_journal_entry_daily_balance db group by db.account_id) gl_j ")
+                        .append("on gl_j.accountId = gl.id ");
             }
             return sb.toString();
         }
@@ -109,11 +113,6 @@ public class GLAccountReadPlatformServiceImpl implements GLAccountReadPlatformSe
 
         final GLAccountMapper rm = new GLAccountMapper(associationParametersData);
         String sql = "select " + rm.schema();
-        // append SQL statement for fetching account totals
-        if (associationParametersData.isRunningBalanceRequired()) {
-            sql = sql + " and gl_j.id in (select t1.id from (SELECT t2.id , max(concat(t2.entry_date,t2.id)) "
-                    + "FROM acc_gl_journal_entry t2 WHERE is_running_balance_calculated = 1 GROUP BY t2.account_id DESC) t1)";
-        }
         final Object[] paramaterArray = new Object[3];
         int arrayPos = 0;
         boolean filtersPresent = false;
@@ -190,13 +189,7 @@ public class GLAccountReadPlatformServiceImpl implements GLAccountReadPlatformSe
             final GLAccountMapper rm = new GLAccountMapper(associationParametersData);
             final StringBuilder sql = new StringBuilder();
             sql.append("select ").append(rm.schema());
-            if (associationParametersData.isRunningBalanceRequired()) {
-                sql.append(" and gl_j.is_running_balance_calculated = 1 ");
-            }
             sql.append("where gl.id = ?");
-            if (associationParametersData.isRunningBalanceRequired()) {
-                sql.append("  ORDER BY gl_j.entry_date DESC,gl_j.id DESC LIMIT 1");
-            }
             final GLAccountData glAccountData = this.jdbcTemplate.queryForObject(sql.toString(), rm, new Object[] { glAccountId });
 
             return glAccountData;
@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+
+/**
+ * A single debit or credit of a system generated journal entry that is yet to
+ * be written.
+ */
+public class JournalEntryDTO {
+
+    private final Long officeId;
+    private final Long glAccountId;
+    private final String currencyCode;
+    private final String transactionId;
+    private final Long loanTransactionId;
+    private final Long savingsTransactionId;
+    private final Date transactionDate;
+    private final JournalEntryType type;
+    private final BigDecimal amount;
+    private final Integer entityType;
+    private final Long entityId;
+
+    public JournalEntryDTO(final Long officeId, final Long glAccountId, final String currencyCode, final String transactionId,
+            final Long loanTransactionId, final Long savingsTransactionId, final Date transactionDate, final JournalEntryType type,
+            final BigDecimal amount, final Integer entityType, final Long entityId) {
+        this.officeId = officeId;
+        this.glAccountId = glAccountId;
+        this.currencyCode = currencyCode;
+        this.transactionId = transactionId;
+        this.loanTransactionId = loanTransactionId;
+        this.savingsTransactionId = savingsTransactionId;
+        this.transactionDate = transactionDate;
+        this.type = type;
+        this.amount = amount;
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public Long getOfficeId() {
+        return this.officeId;
+    }
+
+    public Long getGlAccountId() {
+        return this.glAccountId;
+    }
+
+    public String getCurrencyCode() {
+        return this.currencyCode;
+    }
+
+    public String getTransactionId() {
+        return this.transactionId;
+    }
+
+    public Long getLoanTransactionId() {
+        return this.loanTransactionId;
+    }
+
+    public Long getSavingsTransactionId() {
+        return this.savingsTransactionId;
+    }
+
+    public Date getTransactionDate() {
+        return this.transactionDate;
+    }
+
+    public JournalEntryType getType() {
+        return this.type;
+    }
+
+    public BigDecimal getAmount() {
+        return this.amount;
+    }
+
+    public Integer getEntityType() {
+        return this.entityType;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    public boolean isDebitEntry() {
+        return JournalEntryType.DEBIT.equals(this.type);
+    }
+}
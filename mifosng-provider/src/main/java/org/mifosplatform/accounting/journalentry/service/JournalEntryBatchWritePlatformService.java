@@ -0,0 +1,20 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.util.List;
+
+import org.mifosplatform.accounting.journalentry.data.JournalEntryDTO;
+
+public interface JournalEntryBatchWritePlatformService {
+
+    /**
+     * Writes all debits and credits of a business event in one JDBC batch.
+     * Nothing is written unless the debits and credits of every transaction
+     * balance.
+     */
+    void createJournalEntries(List<JournalEntryDTO> journalEntries);
+}
@@ -0,0 +1,83 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.accounting.journalentry.data.JournalEntryDTO;
+import org.mifosplatform.accounting.journalentry.exception.JournalEntryInvalidException;
+import org.mifosplatform.accounting.journalentry.exception.JournalEntryInvalidException.GL_JOURNAL_ENTRY_INVALID_REASON;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JournalEntryBatchWritePlatformServiceImpl implements JournalEntryBatchWritePlatformService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<AppUser> auditorAware;
+
+    private final String insertSql = "INSERT INTO acc_gl_journal_entry "
+            + "(account_id, office_id, currency_code, transaction_id, loan_transaction_id, savings_transaction_id, reversed, "
+            + "manual_entry, entry_date, type_enum, amount, entity_type_enum, entity_id, createdby_id, lastmodifiedby_id, "
+            + "created_date, lastmodified_date) VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    public JournalEntryBatchWritePlatformServiceImpl(final RoutingDataSource dataSource, final AuditorAware<AppUser> auditorAware) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.auditorAware = auditorAware;
+    }
+
+    @Override
+    public void createJournalEntries(final List<JournalEntryDTO> journalEntries) {
+        if (journalEntries.isEmpty()) { return; }
+
+        validateDebitsEqualCredits(journalEntries);
+
+        final AppUser currentUser = this.auditorAware.getCurrentAuditor();
+        final Long currentUserId = currentUser == null ? null : currentUser.getId();
+        final Date now = new Date();
+
+        final List<Object[]> batch = new ArrayList<>(journalEntries.size());
+        for (final JournalEntryDTO journalEntry : journalEntries) {
+            batch.add(new Object[] { journalEntry.getGlAccountId(), journalEntry.getOfficeId(), journalEntry.getCurrencyCode(),
+                    journalEntry.getTransactionId(), journalEntry.getLoanTransactionId(), journalEntry.getSavingsTransactionId(),
+                    journalEntry.getTransactionDate(), journalEntry.getType().getValue(), journalEntry.getAmount(),
+                    journalEntry.getEntityType(), journalEntry.getEntityId(), currentUserId, currentUserId, now, now });
+        }
+        this.jdbcTemplate.batchUpdate(this.insertSql, batch);
+    }
+
+    private void validateDebitsEqualCredits(final List<JournalEntryDTO> journalEntries) {
+        final Map<String, BigDecimal> balancesByTransaction = new LinkedHashMap<>();
+        for (final JournalEntryDTO journalEntry : journalEntries) {
+            final String key = journalEntry.getTransactionId() + journalEntry.getCurrencyCode();
+            BigDecimal balance = balancesByTransaction.get(key);
+            if (balance == null) {
+                balance = BigDecimal.ZERO;
+            }
+            if (journalEntry.isDebitEntry()) {
+                balance = balance.add(journalEntry.getAmount());
+            } else {
+                balance = balance.subtract(journalEntry.getAmount());
+            }
+            balancesByTransaction.put(key, balance);
+        }
+
+        for (final BigDecimal balance : balancesByTransaction.values()) {
+            if (balance.compareTo(BigDecimal.ZERO) != 0) { throw new JournalEntryInvalidException(
+                    GL_JOURNAL_ENTRY_INVALID_REASON.DEBIT_CREDIT_SUM_MISMATCH, null, null, null); }
+        }
+    }
+}
@@ -6,26 +6,37 @@
 package org.mifosplatform.accounting.journalentry.service;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
 
-import org.mifosplatform.accounting.common.AccountingEnumerations;
 import org.mifosplatform.accounting.glaccount.domain.GLAccountType;
 import org.mifosplatform.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.mifosplatform.accounting.journalentry.data.JournalEntryData;
 import org.mifosplatform.accounting.journalentry.data.JournalEntryDataValidator;
 import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.mifosplatform.infrastructure.core.data.EnumOptionData;
-import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.exception.PlatformInternalServerException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
 import org.mifosplatform.organisation.office.domain.Office;
@@ -36,15 +47,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
     private final static Logger logger = LoggerFactory.getLogger(JournalEntryRunningBalanceUpdateServiceImpl.class);
 
+    private static final int RUNNING_BALANCE_BATCH_SIZE = 1000;
+    private static final int RUNNING_BALANCE_BATCHES_IN_FLIGHT = 4;
+
     private final JdbcTemplate jdbcTemplate;
 
     private final OfficeRepository officeRepository;
@@ -53,30 +73,41 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final FromJsonHelper fromApiJsonHelper;
 
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
-    private final String officeRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC";
+    private final RoutingDataSourceServiceFactory dataSourceServiceFactory;
+
+    /**
+     * Opening balances are summed from the per day totals in
+     * acc_gl_journal_entry_daily_balance instead of searching
+     * acc_gl_journal_entry for the last calculated entry of each account.
+     * 
+     * The daily totals only hold entries whose running balance is calculated:
+     * this job adds an entry to its day in the same transaction that marks it
+     * calculated. Every entry before the earliest uncalculated one is
+     * therefore included, which is all an opening balance needs.
+     */
+    private final String dailyBalanceSchema = "sum(case when glAccount.classification_enum in (" + GLAccountType.ASSET.getValue() + ","
+            + GLAccountType.EXPENSE.getValue() + ") "
+            + "then db.debit_amount - db.credit_amount else db.credit_amount - db.debit_amount end) as runningBalance "
+            + "from acc_gl_journal_entry_daily_balance db join acc_gl_account glAccount on glAccount.id = db.account_id ";
 
-    private final String organizationRunningBalanceSql = "select je.organization_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC";
+    private final String officeRunningBalanceSql = "select db.account_id as accountId, " + this.dailyBalanceSchema
+            + "where db.office_id = ? and db.entry_date < ? group by db.account_id";
 
-    private final String officesRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-            + "from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC";
+    private final String organizationRunningBalanceSql = "select db.account_id as accountId, " + this.dailyBalanceSchema
+            + "where db.entry_date < ? group by db.account_id";
+
+    private final String officesRunningBalanceSql = "select db.account_id as accountId, db.office_id as officeId, "
+            + this.dailyBalanceSchema + "where db.entry_date < ? group by db.office_id, db.account_id";
 
     @Autowired
     public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource, final OfficeRepository officeRepository,
-            final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper) {
+            final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper,
+            final RoutingDataSourceServiceFactory dataSourceServiceFactory) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.officeRepository = officeRepository;
         this.dataValidator = dataValidator;
         this.fromApiJsonHelper = fromApiJsonHelper;
+        this.dataSourceServiceFactory = dataSourceServiceFactory;
     }
 
     @Override
@@ -118,12 +149,11 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         return commandProcessingResultBuilder.build();
     }
 
-    @Transactional
     private void updateOrganizationRunningBalance(Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+        final Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceSql, entityDate, entityDate);
+        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceSql, entityDate);
         for (Map<String, Object> entries : list) {
             Long accountId = (Long) entries.get("accountId");
             if (!runningBalanceMap.containsKey(accountId)) {
@@ -131,7 +161,7 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             }
         }
 
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(officesRunningBalanceSql, entityDate, entityDate);
+        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(officesRunningBalanceSql, entityDate);
         for (Map<String, Object> entries : officesRunningBalanceList) {
             Long accountId = (Long) entries.get("accountId");
             Long officeId = (Long) entries.get("officeId");
@@ -147,61 +177,118 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             }
         }
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            String[] updateSql = new String[entryDatas.size()];
-            int i = 0;
-            for (JournalEntryData entryData : entryDatas) {
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                        + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                updateSql[i++] = sql;
-            }
-            this.jdbcTemplate.batchUpdate(updateSql);
-        }
+        final String updateSql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=1, organization_running_balance=?, office_running_balance=? WHERE id=?";
+        final long entriesUpdated = streamRunningBalanceUpdates(RunningBalanceEntrySchema.ORGANIZATION, new Object[] { entityDate },
+                updateSql, new RunningBalanceCalculator() {
 
+                    @Override
+                    public Object[] calculate(final long entryId, final Long officeId, final Long accountId, final boolean isIncrease,
+                            final BigDecimal amount) {
+                        Map<Long, BigDecimal> officeRunningBalanceMap = officesRunningBalance.get(officeId);
+                        if (officeRunningBalanceMap == null) {
+                            officeRunningBalanceMap = new HashMap<>();
+                            officesRunningBalance.put(officeId, officeRunningBalanceMap);
+                        }
+                        final BigDecimal officeRunningBalance = calculateRunningBalance(accountId, isIncrease, amount,
+                                officeRunningBalanceMap);
+                        final BigDecimal runningBalance = calculateRunningBalance(accountId, isIncrease, amount, runningBalanceMap);
+                        return new Object[] { runningBalance, officeRunningBalance, entryId };
+                    }
+                });
+        logger.info("Organization running balance updated for " + entriesUpdated + " journal entries since " + entityDate);
     }
 
-    @Transactional
     private void updateRunningBalance(Long officeId, Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate, officeId, entityDate);
+        List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate);
         for (Map<String, Object> entries : list) {
             Long accountId = (Long) entries.get("accountId");
             if (!runningBalanceMap.containsKey(accountId)) {
                 runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
             }
         }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
-                officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                    + entryData.getId();
-            updateSql[i++] = sql;
-        }
-        this.jdbcTemplate.batchUpdate(updateSql);
+
+        final String updateSql = "UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?";
+        final long entriesUpdated = streamRunningBalanceUpdates(RunningBalanceEntrySchema.OFFICE, new Object[] { officeId, entityDate },
+                updateSql, new RunningBalanceCalculator() {
+
+                    @Override
+                    public Object[] calculate(final long entryId, @SuppressWarnings("unused") final Long entryOfficeId,
+                            final Long accountId, final boolean isIncrease, final BigDecimal amount) {
+                        final BigDecimal runningBalance = calculateRunningBalance(accountId, isIncrease, amount, runningBalanceMap);
+                        return new Object[] { runningBalance, entryId };
+                    }
+                });
+        logger.info("Office running balance updated for " + entriesUpdated + " journal entries of office " + officeId + " since "
+                + entityDate);
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
+    /**
+     * Reads the journal entries through a forward-only streaming cursor and
+     * hands the calculated balances to a {@link RunningBalanceBatchWriter} in
+     * parameterized batches, so only the per account balances and the batches
+     * in flight are held in memory.
+     * 
+     * Each batch commits on its own. Entries are always recalculated from the
+     * earliest entry date that still has an uncalculated entry, so a run that
+     * is interrupted resumes from there the next time.
+     */
+    private long streamRunningBalanceUpdates(final RunningBalanceEntrySchema entrySchema, final Object[] entrySchemaParams,
+            final String updateSql, final RunningBalanceCalculator calculator) {
+
+        final DataSource dataSource = this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource();
+
+        // the cursor keeps its connection busy until the last row is read, so
+        // batches are written through another connection of the pool
+        final JdbcTemplate cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        final PreparedStatementCreator cursorCreator = new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection con) throws SQLException {
+                final PreparedStatement ps = con.prepareStatement(entrySchema.sql(), ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                // JdbcTemplate ignores fetch sizes below 1; MySQL Connector/J
+                // only streams rows one at a time with this value
+                ps.setFetchSize(Integer.MIN_VALUE);
+                for (int i = 0; i < entrySchemaParams.length; i++) {
+                    StatementCreatorUtils.setParameterValue(ps, i + 1, SqlTypeValue.TYPE_UNKNOWN, entrySchemaParams[i]);
+                }
+                return ps;
+            }
+        };
+
+        final RunningBalanceBatchWriter batchWriter = new RunningBalanceBatchWriter(dataSource, updateSql);
+        try {
+            cursorJdbcTemplate.query(cursorCreator, new RowCallbackHandler() {
+
+                @Override
+                public void processRow(final ResultSet rs) throws SQLException {
+                    final long entryId = rs.getLong("id");
+                    final Long accountId = rs.getLong("glAccountId");
+                    final Long officeId = rs.getLong("officeId");
+                    final int accountTypeId = rs.getInt("classification");
+                    final int entryTypeId = rs.getInt("entryType");
+                    final BigDecimal amount = rs.getBigDecimal("amount");
+                    final boolean isIncrease = isIncrease(accountTypeId, entryTypeId);
+                    batchWriter.add(calculator.calculate(entryId, officeId, accountId, isIncrease, amount));
+                    if (entrySchema.marksEntriesCalculated() && !rs.getBoolean("isRunningBalanceCalculated")) {
+                        final DailyBalanceKey day = new DailyBalanceKey(officeId, accountId, rs.getString("currencyCode"),
+                                rs.getDate("entryDate"));
+                        batchWriter.addToDailyBalance(day, JournalEntryType.fromInt(entryTypeId).isDebitType(), amount);
+                    }
+                }
+            });
+            batchWriter.finish();
+        } finally {
+            batchWriter.close();
         }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
+        return batchWriter.rowsWritten();
+    }
+
+    private static boolean isIncrease(final int accountTypeId, final int entryTypeId) {
+        final GLAccountType accounttype = GLAccountType.fromInt(accountTypeId);
+        final JournalEntryType entryType = JournalEntryType.fromInt(entryTypeId);
         boolean isIncrease = false;
         switch (accounttype) {
             case ASSET:
@@ -230,45 +317,235 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 }
             break;
         }
+        return isIncrease;
+    }
+
+    private static BigDecimal calculateRunningBalance(final Long accountId, final boolean isIncrease, final BigDecimal amount,
+            final Map<Long, BigDecimal> runningBalanceMap) {
+        BigDecimal runningBalance = runningBalanceMap.get(accountId);
+        if (runningBalance == null) {
+            runningBalance = BigDecimal.ZERO;
+        }
         if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
+            runningBalance = runningBalance.add(amount);
         } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
+            runningBalance = runningBalance.subtract(amount);
         }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
+        runningBalanceMap.put(accountId, runningBalance);
         return runningBalance;
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
+    private static interface RunningBalanceCalculator {
+
+        /**
+         * @return the parameters of the update statement for this entry
+         */
+        Object[] calculate(long entryId, Long officeId, Long accountId, boolean isIncrease, BigDecimal amount);
+    }
+
+    private static enum RunningBalanceEntrySchema {
+
+        OFFICE("select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
+                + "glAccount.classification_enum as classification,je.office_id as officeId "
+                + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
+                + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id", false), //
+        ORGANIZATION("select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
+                + "glAccount.classification_enum as classification,je.office_id as officeId, "
+                + "je.currency_code as currencyCode, je.entry_date as entryDate, "
+                + "je.is_running_balance_calculated as isRunningBalanceCalculated "
+                + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
+                + "and je.entry_date >= ? order by je.entry_date,je.id", true);
 
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
+        private final String sql;
+        private final boolean marksEntriesCalculated;
+
+        private RunningBalanceEntrySchema(final String sql, final boolean marksEntriesCalculated) {
+            this.sql = sql;
+            this.marksEntriesCalculated = marksEntriesCalculated;
         }
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+        public String sql() {
+            return this.sql;
+        }
+
+        /**
+         * Whether the update of this schema sets is_running_balance_calculated,
+         * in which case newly calculated entries are added to the daily
+         * balances.
+         */
+        public boolean marksEntriesCalculated() {
+            return this.marksEntriesCalculated;
+        }
+    }
+
+    /**
+     * Office, GL account, currency and entry date of a daily balance, ordered
+     * like the primary key of acc_gl_journal_entry_daily_balance so that every
+     * batch locks its rows in the same order.
+     */
+    private static final class DailyBalanceKey implements Comparable<DailyBalanceKey> {
+
+        private final Long officeId;
+        private final Long accountId;
+        private final String currencyCode;
+        private final Date entryDate;
+
+        public DailyBalanceKey(final Long officeId, final Long accountId, final String currencyCode, final Date entryDate) {
+            this.officeId = officeId;
+            this.accountId = accountId;
+            this.currencyCode = currencyCode;
+            this.entryDate = entryDate;
         }
 
         @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
-
-            final Long id = rs.getLong("id");
-            final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
-            final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
-
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null, null);
+        public int compareTo(final DailyBalanceKey other) {
+            int result = this.officeId.compareTo(other.officeId);
+            if (result == 0) {
+                result = this.accountId.compareTo(other.accountId);
+            }
+            if (result == 0) {
+                result = this.currencyCode.compareTo(other.currencyCode);
+            }
+            if (result == 0) {
+                result = this.entryDate.compareTo(other.entryDate);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof DailyBalanceKey && compareTo((DailyBalanceKey) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((this.officeId.hashCode() * 31 + this.accountId.hashCode()) * 31 + this.currencyCode.hashCode()) * 31
+                    + this.entryDate.hashCode();
+        }
+    }
+
+    /**
+     * Writes running balance updates in batches on a single writer thread, so
+     * batches commit in the order the cursor produced them. If a batch fails
+     * the entries before it are calculated and none after it are, which is
+     * what the next run resumes from. The number of batches waiting to be
+     * written is bounded, which throttles the cursor when the database falls
+     * behind.
+     * 
+     * The daily balance totals of the entries a batch marks calculated are
+     * upserted in the same transaction as the batch, in key order.
+     */
+    private static final class RunningBalanceBatchWriter {
+
+        private static final String DAILY_BALANCE_UPSERT_SQL = "INSERT INTO acc_gl_journal_entry_daily_balance "
+                + "(office_id, account_id, currency_code, entry_date, debit_amount, credit_amount) VALUES (?, ?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE debit_amount = debit_amount + VALUES(debit_amount), "
+                + "credit_amount = credit_amount + VALUES(credit_amount)";
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+        private final String updateSql;
+        private final ExecutorService writers = Executors.newSingleThreadExecutor();
+        private final Semaphore batchesInFlight = new Semaphore(RUNNING_BALANCE_BATCHES_IN_FLIGHT);
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final AtomicLong rowsWritten = new AtomicLong();
+        private List<Object[]> batch = new ArrayList<>(RUNNING_BALANCE_BATCH_SIZE);
+        // debit and credit totals per day of the entries in the batch
+        private SortedMap<DailyBalanceKey, BigDecimal[]> dailyBalances = new TreeMap<>();
+
+        public RunningBalanceBatchWriter(final DataSource dataSource, final String updateSql) {
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            this.updateSql = updateSql;
+        }
+
+        public void addToDailyBalance(final DailyBalanceKey day, final boolean isDebit, final BigDecimal amount) {
+            BigDecimal[] totals = this.dailyBalances.get(day);
+            if (totals == null) {
+                totals = new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO };
+                this.dailyBalances.put(day, totals);
+            }
+            final int index = isDebit ? 0 : 1;
+            totals[index] = totals[index].add(amount);
+        }
+
+        public void add(final Object[] updateParams) {
+            this.batch.add(updateParams);
+            if (this.batch.size() >= RUNNING_BALANCE_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        public void finish() {
+            flush();
+            this.writers.shutdown();
+            try {
+                while (!this.writers.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logger.debug("Waiting for running balance batches to be written");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PlatformInternalServerException("error.msg.running.balance.update.interrupted",
+                        "Running balance update was interrupted");
+            }
+            throwIfFailed();
+        }
+
+        public void close() {
+            this.writers.shutdownNow();
+        }
+
+        public long rowsWritten() {
+            return this.rowsWritten.get();
+        }
+
+        private void flush() {
+            throwIfFailed();
+            if (this.batch.isEmpty()) { return; }
+            final List<Object[]> batchToWrite = this.batch;
+            final List<Object[]> dailyBalancesToWrite = new ArrayList<>(this.dailyBalances.size());
+            for (final Map.Entry<DailyBalanceKey, BigDecimal[]> day : this.dailyBalances.entrySet()) {
+                final DailyBalanceKey key = day.getKey();
+                dailyBalancesToWrite.add(new Object[] { key.officeId, key.accountId, key.currencyCode, key.entryDate, day.getValue()[0],
+                        day.getValue()[1] });
+            }
+            this.batch = new ArrayList<>(RUNNING_BALANCE_BATCH_SIZE);
+            this.dailyBalances = new TreeMap<>();
+            this.batchesInFlight.acquireUninterruptibly();
+            this.writers.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        if (RunningBalanceBatchWriter.this.failure.get() == null) {
+                            writeInTransaction(batchToWrite, dailyBalancesToWrite);
+                            RunningBalanceBatchWriter.this.rowsWritten.addAndGet(batchToWrite.size());
+                        }
+                    } catch (final RuntimeException e) {
+                        RunningBalanceBatchWriter.this.failure.compareAndSet(null, e);
+                    } finally {
+                        RunningBalanceBatchWriter.this.batchesInFlight.release();
+                    }
+                }
+            });
+        }
+
+        private void writeInTransaction(final List<Object[]> batchToWrite, final List<Object[]> dailyBalancesToWrite) {
+            this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    RunningBalanceBatchWriter.this.jdbcTemplate.batchUpdate(RunningBalanceBatchWriter.this.updateSql, batchToWrite);
+                    if (!dailyBalancesToWrite.isEmpty()) {
+                        RunningBalanceBatchWriter.this.jdbcTemplate.batchUpdate(DAILY_BALANCE_UPSERT_SQL, dailyBalancesToWrite);
+                    }
+                }
+            });
+        }
+
+        private void throwIfFailed() {
+            final RuntimeException e = this.failure.get();
+            if (e != null) { throw e; }
         }
     }
 
@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.accounting.journalentry.service;
 
+import java.util.List;
 import java.util.Map;
 
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -18,5 +19,11 @@ public interface JournalEntryWritePlatformService {
 
     void createJournalEntriesForLoan(Map<String, Object> accountingBridgeData);
 
+    /**
+     * Posts the journal entries of the given loans' transactions as one batch,
+     * e.g. for the accruals of a chunk of loans posted by a batch job.
+     */
+    void createJournalEntriesForLoans(List<Map<String, Object>> accountingBridgeDataOfLoans);
+
     void createJournalEntriesForSavings(Map<String, Object> accountingBridgeData);
 }
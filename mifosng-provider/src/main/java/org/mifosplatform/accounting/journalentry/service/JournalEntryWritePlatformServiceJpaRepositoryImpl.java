@@ -7,6 +7,7 @@ package org.mifosplatform.accounting.journalentry.service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -308,17 +309,32 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     @Transactional
     @Override
     public void createJournalEntriesForLoan(final Map<String, Object> accountingBridgeData) {
+        createJournalEntriesForLoans(Arrays.asList(accountingBridgeData));
+    }
 
-        final boolean cashBasedAccountingEnabled = (Boolean) accountingBridgeData.get("cashBasedAccountingEnabled");
-        final boolean upfrontAccrualBasedAccountingEnabled = (Boolean) accountingBridgeData.get("upfrontAccrualBasedAccountingEnabled");
-        final boolean periodicAccrualBasedAccountingEnabled = (Boolean) accountingBridgeData.get("periodicAccrualBasedAccountingEnabled");
-
-        if (cashBasedAccountingEnabled || upfrontAccrualBasedAccountingEnabled || periodicAccrualBasedAccountingEnabled) {
-            final LoanDTO loanDTO = this.helper.populateLoanDtoFromMap(accountingBridgeData, cashBasedAccountingEnabled,
-                    upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled);
-            final AccountingProcessorForLoan accountingProcessorForLoan = this.accountingProcessorForLoanFactory
-                    .determineProcessor(loanDTO);
-            accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+    @Transactional
+    @Override
+    public void createJournalEntriesForLoans(final List<Map<String, Object>> accountingBridgeDataOfLoans) {
+        this.helper.startPosting();
+        try {
+            for (final Map<String, Object> accountingBridgeData : accountingBridgeDataOfLoans) {
+                final boolean cashBasedAccountingEnabled = (Boolean) accountingBridgeData.get("cashBasedAccountingEnabled");
+                final boolean upfrontAccrualBasedAccountingEnabled = (Boolean) accountingBridgeData
+                        .get("upfrontAccrualBasedAccountingEnabled");
+                final boolean periodicAccrualBasedAccountingEnabled = (Boolean) accountingBridgeData
+                        .get("periodicAccrualBasedAccountingEnabled");
+
+                if (cashBasedAccountingEnabled || upfrontAccrualBasedAccountingEnabled || periodicAccrualBasedAccountingEnabled) {
+                    final LoanDTO loanDTO = this.helper.populateLoanDtoFromMap(accountingBridgeData, cashBasedAccountingEnabled,
+                            upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled);
+                    final AccountingProcessorForLoan accountingProcessorForLoan = this.accountingProcessorForLoanFactory
+                            .determineProcessor(loanDTO);
+                    accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+                }
+            }
+            this.helper.completePosting();
+        } finally {
+            this.helper.discardPosting();
         }
     }
 
@@ -334,7 +350,13 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     accrualBasedAccountingEnabled);
             final AccountingProcessorForSavings accountingProcessorForSavings = this.accountingProcessorForSavingsFactory
                     .determineProcessor(savingsDTO);
-            accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+            this.helper.startPosting();
+            try {
+                accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+                this.helper.completePosting();
+            } finally {
+                this.helper.discardPosting();
+            }
         }
 
     }
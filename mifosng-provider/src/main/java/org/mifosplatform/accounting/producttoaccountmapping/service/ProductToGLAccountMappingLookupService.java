@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.producttoaccountmapping.service;
+
+import org.mifosplatform.accounting.producttoaccountmapping.domain.PortfolioProductType;
+
+/**
+ * Resolves the GL account that a placeholder account of a product is mapped
+ * to when journal entries are posted. Results are cached and evicted whenever
+ * product or financial activity mappings change.
+ */
+public interface ProductToGLAccountMappingLookupService {
+
+    /**
+     * Returns the id of the GL account mapped to the given placeholder account
+     * of a product. Organization wide financial activities are resolved to
+     * their GL account, and fund source (or savings reference) accounts are
+     * resolved to the payment type specific account when one is mapped.
+     */
+    Long retrieveGLAccountIdForProduct(PortfolioProductType productType, Long productId, int accountMappingTypeId, Long paymentTypeId);
+
+    /**
+     * Returns the id of the GL account mapped to the given placeholder income
+     * account of a product, or to its charge specific account when one is
+     * mapped.
+     */
+    Long retrieveGLAccountIdForCharge(PortfolioProductType productType, Long productId, int accountMappingTypeId, Long chargeId);
+}
@@ -0,0 +1,106 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.producttoaccountmapping.service;
+
+import org.mifosplatform.accounting.common.AccountingConstants.ACCRUAL_ACCOUNTS_FOR_LOAN;
+import org.mifosplatform.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_LOAN;
+import org.mifosplatform.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_SAVINGS;
+import org.mifosplatform.accounting.common.AccountingConstants.FINANCIAL_ACTIVITY;
+import org.mifosplatform.accounting.financialactivityaccount.domain.FinancialActivityAccount;
+import org.mifosplatform.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
+import org.mifosplatform.accounting.producttoaccountmapping.exception.ProductToGLAccountMappingNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ProductToGLAccountMappingLookupServiceImpl implements ProductToGLAccountMappingLookupService {
+
+    private final ProductToGLAccountMappingRepository accountMappingRepository;
+    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
+
+    @Autowired
+    public ProductToGLAccountMappingLookupServiceImpl(final ProductToGLAccountMappingRepository accountMappingRepository,
+            final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository) {
+        this.accountMappingRepository = accountMappingRepository;
+        this.financialActivityAccountRepository = financialActivityAccountRepository;
+    }
+
+    @Override
+    @Cacheable(value = "productToGLAccountMappings", key = "'product|' + #productType.name() + '|' + #productId + '|' + #accountMappingTypeId + '|' + #paymentTypeId")
+    public Long retrieveGLAccountIdForProduct(final PortfolioProductType productType, final Long productId,
+            final int accountMappingTypeId, final Long paymentTypeId) {
+        if (FINANCIAL_ACTIVITY.fromInt(accountMappingTypeId) != null) {
+            final FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
+                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
+            return financialActivityAccount.getGlAccount().getId();
+        }
+
+        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(productId,
+                productType.getValue(), accountMappingTypeId);
+
+        /****
+         * Get more specific mapping for FUND source accounts (based on payment
+         * channels). Note that fund source placeholder ID would be same for
+         * both cash and accrual accounts
+         ***/
+        if (isPaymentChannelSpecific(productType, accountMappingTypeId)) {
+            final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
+                    .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(productId, productType.getValue(),
+                            accountMappingTypeId, paymentTypeId);
+            if (paymentChannelSpecificAccountMapping != null) {
+                accountMapping = paymentChannelSpecificAccountMapping;
+            }
+        }
+
+        if (accountMapping == null) { throw new ProductToGLAccountMappingNotFoundException(productType, productId,
+                ACCRUAL_ACCOUNTS_FOR_LOAN.OVERPAYMENT.toString()); }
+        return accountMapping.getGlAccount().getId();
+    }
+
+    @Override
+    @Cacheable(value = "productToGLAccountMappings", key = "'charge|' + #productType.name() + '|' + #productId + '|' + #accountMappingTypeId + '|' + #chargeId")
+    public Long retrieveGLAccountIdForCharge(final PortfolioProductType productType, final Long productId, final int accountMappingTypeId,
+            final Long chargeId) {
+        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(productId,
+                productType.getValue(), accountMappingTypeId);
+
+        /*****
+         * Get more specific mappings for Charges and penalties (based on the
+         * actual charge /penalty coupled with the product). Note the income
+         * from fees and income from penalties placeholder ID would be the same
+         * for both cash and accrual based accounts
+         *****/
+        if (isChargeSpecific(productType, accountMappingTypeId)) {
+            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
+                    .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(productId, productType.getValue(),
+                            accountMappingTypeId, chargeId);
+            if (chargeSpecificIncomeAccountMapping != null) {
+                accountMapping = chargeSpecificIncomeAccountMapping;
+            }
+        }
+
+        if (accountMapping == null) { throw new ProductToGLAccountMappingNotFoundException(productType, productId,
+                String.valueOf(accountMappingTypeId)); }
+        return accountMapping.getGlAccount().getId();
+    }
+
+    private boolean isPaymentChannelSpecific(final PortfolioProductType productType, final int accountMappingTypeId) {
+        if (productType.isLoanProduct()) { return accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.FUND_SOURCE.getValue(); }
+        return accountMappingTypeId == CASH_ACCOUNTS_FOR_SAVINGS.SAVINGS_REFERENCE.getValue();
+    }
+
+    private boolean isChargeSpecific(final PortfolioProductType productType, final int accountMappingTypeId) {
+        // Vishwas TODO: remove this condition as it should always be true
+        if (productType.isLoanProduct()) { return accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_FEES.getValue()
+                || accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_PENALTIES.getValue(); }
+        return accountMappingTypeId == CASH_ACCOUNTS_FOR_SAVINGS.INCOME_FROM_FEES.getValue()
+                || accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_PENALTIES.getValue();
+    }
+}
@@ -36,6 +36,20 @@ public interface BatchApiService {
      */
     List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo);
 
+    /**
+     * Returns a list of {@link org.mifosplatform.batch.domain.BatchResponse}s
+     * like {@link #handleBatchRequestsWithoutEnclosingTransaction}, but runs
+     * requests that do not depend on each other concurrently. A depending
+     * request starts once the request it refers to has completed. It will be
+     * used when the Query Parameter "parallel" is set to 'true' and
+     * "enclosingTransaction" is not.
+     * 
+     * @param requestList
+     * @param uriInfo
+     * @return List<BatchResponse>
+     */
+    List<BatchResponse> handleBatchRequestsInParallel(List<BatchRequest> requestList, UriInfo uriInfo);
+
     /**
      * returns a list of {@link org.mifosplatform.batch.domain.BatchResponse}s
      * by getting the appropriate CommandStrategy for every
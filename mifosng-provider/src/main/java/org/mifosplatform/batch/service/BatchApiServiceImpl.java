@@ -6,9 +6,19 @@
 package org.mifosplatform.batch.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
@@ -21,7 +31,12 @@ import org.mifosplatform.batch.domain.BatchResponse;
 import org.mifosplatform.batch.exception.ErrorHandler;
 import org.mifosplatform.batch.exception.ErrorInfo;
 import org.mifosplatform.batch.service.ResolutionHelper.BatchRequestNode;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.PlatformInternalServerException;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
@@ -30,13 +45,15 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import com.google.gson.Gson;
 
-import edu.emory.mathcs.backport.java.util.Collections;
-
 /**
  * Implementation for {@link BatchApiService} to iterate through all the
  * incoming requests and obtain the appropriate CommandStrategy from
  * CommandStrategyProvider.
  * 
+ * Independent request trees of a parallel batch run on a worker pool shared by
+ * all batch calls, so the number of requests executing at once stays bounded
+ * no matter how many clients send batches together.
+ * 
  * @author Rishabh Shukla
  * 
  * @see org.mifosplatform.batch.domain.BatchRequest
@@ -46,10 +63,12 @@ import edu.emory.mathcs.backport.java.util.Collections;
 @Service
 public class BatchApiServiceImpl implements BatchApiService {
 
+    private static final int BATCH_WORKER_THREAD_COUNT = 8;
+
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
-    private List<BatchResponse> checkList = new ArrayList<>();
+    private final ExecutorService workerPool;
 
     /**
      * Constructs a 'BatchApiServiceImpl' with an argument of
@@ -65,6 +84,22 @@ public class BatchApiServiceImpl implements BatchApiService {
         this.strategyProvider = strategyProvider;
         this.resolutionHelper = resolutionHelper;
         this.transactionTemplate = transactionTemplate;
+        this.workerPool = Executors.newFixedThreadPool(BATCH_WORKER_THREAD_COUNT, new ThreadFactory() {
+
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "batch-request-worker-" + this.threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.workerPool.shutdownNow();
     }
 
     /**
@@ -72,16 +107,19 @@ public class BatchApiServiceImpl implements BatchApiService {
      * {@link org.mifosplatform.batch.command.CommandStrategy}. execute() method
      * of acquired commandStrategy is then provided with the separate Request.
      * 
+     * The responses are collected into the given responseList, so that the
+     * caller still sees the responses of completed requests when the enclosing
+     * transaction fails to commit.
+     * 
      * @param requestList
      * @param uriInfo
+     * @param responseList
      * @return List<BatchResponse>
      */
-    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo) {
-
-        final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
+    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo,
+            final List<BatchResponse> responseList) {
 
         final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
-        checkList.clear();
 
         for (BatchRequestNode rootNode : batchRequestNodes) {
             final BatchRequest rootRequest = rootNode.getRequest();
@@ -93,6 +131,71 @@ public class BatchApiServiceImpl implements BatchApiService {
             responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
         }
 
+        sortByRequestId(responseList);
+        return responseList;
+
+    }
+
+    /**
+     * Returns the response list like
+     * {@link #handleBatchRequests(List, UriInfo, List)}, but submits every
+     * independent request tree to the worker pool. A depending request is
+     * submitted as soon as the response of its parent is available, so one slow
+     * request only holds back the requests that refer to it. The calling thread
+     * only coordinates and never waits on a worker for another worker.
+     * 
+     * @param requestList
+     * @param uriInfo
+     * @return List<BatchResponse>
+     */
+    private List<BatchResponse> handleBatchRequestsConcurrently(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
+
+        final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final CompletionService<BatchNodeOutcome> completionService = new ExecutorCompletionService<>(this.workerPool);
+
+        int pending = 0;
+        for (BatchRequestNode rootNode : batchRequestNodes) {
+            completionService.submit(new BatchNodeWorker(tenant, securityContext, rootNode, null, uriInfo));
+            pending++;
+        }
+
+        while (pending > 0) {
+            final BatchNodeOutcome outcome;
+            try {
+                outcome = completionService.take().get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PlatformInternalServerException("error.msg.batch.interrupted",
+                        "Interrupted while waiting for batch requests to complete");
+            } catch (final ExecutionException e) {
+                // workers turn every failure into a response of their own
+                throw new PlatformInternalServerException("error.msg.batch.worker.failed", "Batch request worker failed: "
+                        + e.getCause().getMessage());
+            }
+            pending--;
+
+            responseList.add(outcome.response);
+            for (BatchRequestNode childNode : outcome.node.getChildRequests()) {
+                if (outcome.response.getStatusCode().equals(200)) {
+                    completionService.submit(new BatchNodeWorker(tenant, securityContext, childNode, outcome.response, uriInfo));
+                    pending++;
+                } else {
+                    final BatchResponse childResponse = conflictResponse(childNode.getRequest(), outcome.response);
+                    responseList.add(childResponse);
+                    responseList.addAll(this.processChildRequests(childNode, childResponse, uriInfo));
+                }
+            }
+        }
+
+        sortByRequestId(responseList);
+        return responseList;
+    }
+
+    private static void sortByRequestId(final List<BatchResponse> responseList) {
         Collections.sort(responseList, new Comparator<BatchResponse>() {
 
             @Override
@@ -100,10 +203,32 @@ public class BatchApiServiceImpl implements BatchApiService {
                 return source.getRequestId().compareTo(testee.getRequestId());
             }
         });
+    }
 
-        checkList = responseList;
-        return responseList;
+    private static BatchResponse conflictResponse(final BatchRequest childRequest, final BatchResponse parentResponse) {
+
+        // Something went wrong with the parent request, create a response with
+        // status code 409
+        final BatchResponse childResponse = new BatchResponse();
+        childResponse.setRequestId(childRequest.getRequestId());
+        childResponse.setStatusCode(Status.CONFLICT.getStatusCode());
+
+        // Some detail information about the error
+        final ErrorInfo conflictError = new ErrorInfo(Status.CONFLICT.getStatusCode(), 8001, "Parent request with id "
+                + parentResponse.getRequestId() + " was erroneous!");
+        childResponse.setBody(conflictError.getMessage());
 
+        return childResponse;
+    }
+
+    private static BatchResponse internalServerErrorResponse(final BatchRequest request, final Throwable ex) {
+
+        final BatchResponse response = new BatchResponse();
+        response.setRequestId(request.getRequestId());
+        response.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+        response.setBody(ex.getMessage());
+
+        return response;
     }
 
     private List<BatchResponse> processChildRequests(final BatchRequestNode rootRequest, BatchResponse rootResponse, UriInfo uriInfo) {
@@ -126,25 +251,13 @@ public class BatchApiServiceImpl implements BatchApiService {
                         childResponse = commandStrategy.execute(childRequest, uriInfo);
 
                     } else {
-                        // Something went wrong with the parent request, create
-                        // a response with status code 409
-                        childResponse = new BatchResponse();
-                        childResponse.setRequestId(childRequest.getRequestId());
-                        childResponse.setStatusCode(Status.CONFLICT.getStatusCode());
-
-                        // Some detail information about the error
-                        final ErrorInfo conflictError = new ErrorInfo(Status.CONFLICT.getStatusCode(), 8001, "Parent request with id "
-                                + rootResponse.getRequestId() + " was erroneous!");
-                        childResponse.setBody(conflictError.getMessage());
+                        childResponse = conflictResponse(childRequest, rootResponse);
                     }
                     childResponses.addAll(this.processChildRequests(childNode, childResponse, uriInfo));
 
                 } catch (Throwable ex) {
 
-                    childResponse = new BatchResponse();
-                    childResponse.setRequestId(childRequest.getRequestId());
-                    childResponse.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
-                    childResponse.setBody(ex.getMessage());
+                    childResponse = internalServerErrorResponse(childRequest, ex);
                 }
 
                 childResponses.add(childResponse);
@@ -157,19 +270,26 @@ public class BatchApiServiceImpl implements BatchApiService {
     @Override
     public List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(final List<BatchRequest> requestList, UriInfo uriInfo) {
 
-        return handleBatchRequests(requestList, uriInfo);
+        return handleBatchRequests(requestList, uriInfo, new ArrayList<BatchResponse>(requestList.size()));
+    }
+
+    @Override
+    public List<BatchResponse> handleBatchRequestsInParallel(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        return handleBatchRequestsConcurrently(requestList, uriInfo);
     }
 
     @Override
     public List<BatchResponse> handleBatchRequestsWithEnclosingTransaction(final List<BatchRequest> requestList, final UriInfo uriInfo) {
 
+        final List<BatchResponse> checkList = new ArrayList<>(requestList.size());
         try {
             return this.transactionTemplate.execute(new TransactionCallback<List<BatchResponse>>() {
 
                 @Override
                 public List<BatchResponse> doInTransaction(TransactionStatus status) {
                     try {
-                        return handleBatchRequests(requestList, uriInfo);
+                        return handleBatchRequests(requestList, uriInfo, checkList);
                     } catch (RuntimeException ex) {
 
                         ErrorInfo e = ErrorHandler.handler(ex);
@@ -198,7 +318,6 @@ public class BatchApiServiceImpl implements BatchApiService {
                 }
             }
 
-            checkList.clear();
             List<BatchResponse> errResponseList = new ArrayList<>();
             errResponseList.add(errResponse);
 
@@ -206,4 +325,62 @@ public class BatchApiServiceImpl implements BatchApiService {
         }
 
     }
+
+    private static final class BatchNodeOutcome {
+
+        private final BatchRequestNode node;
+        private final BatchResponse response;
+
+        public BatchNodeOutcome(final BatchRequestNode node, final BatchResponse response) {
+            this.node = node;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Executes a single request on a pool thread with the tenant and the
+     * authenticated user of the batch call bound to it.
+     */
+    private final class BatchNodeWorker implements Callable<BatchNodeOutcome> {
+
+        private final MifosPlatformTenant tenant;
+        private final SecurityContext securityContext;
+        private final BatchRequestNode node;
+        private final BatchResponse parentResponse;
+        private final UriInfo uriInfo;
+
+        public BatchNodeWorker(final MifosPlatformTenant tenant, final SecurityContext securityContext, final BatchRequestNode node,
+                final BatchResponse parentResponse, final UriInfo uriInfo) {
+            this.tenant = tenant;
+            this.securityContext = securityContext;
+            this.node = node;
+            this.parentResponse = parentResponse;
+            this.uriInfo = uriInfo;
+        }
+
+        @Override
+        public BatchNodeOutcome call() {
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            SecurityContextHolder.setContext(this.securityContext);
+            try {
+                BatchRequest request = this.node.getRequest();
+                BatchResponse response;
+                try {
+                    if (this.parentResponse != null) {
+                        request = BatchApiServiceImpl.this.resolutionHelper.resoluteRequest(request, this.parentResponse);
+                    }
+                    final CommandStrategy commandStrategy = BatchApiServiceImpl.this.strategyProvider.getCommandStrategy(CommandContext
+                            .resource(request.getRelativeUrl()).method(request.getMethod()).build());
+
+                    response = commandStrategy.execute(request, this.uriInfo);
+                } catch (Throwable ex) {
+                    response = internalServerErrorResponse(request, ex);
+                }
+                return new BatchNodeOutcome(this.node, response);
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
 }
@@ -0,0 +1,33 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers a
+ * {@link org.mifosplatform.commands.handler.NewCommandSourceHandler} for the commands with the given
+ * entity and action names, as set by the
+ * {@link org.mifosplatform.commands.service.CommandWrapperBuilder}. Names are
+ * matched ignoring case.
+ * 
+ * Datatable and survey commands carry the name of the datatable as entity, so
+ * their handlers are registered under the entity names defined in
+ * {@link org.mifosplatform.commands.service.CommandHandlerProvider}.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CommandType {
+
+    String[] entity();
+
+    String action();
+}
@@ -9,21 +9,38 @@ import java.util.Date;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.DateTime;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.useradministration.domain.AppUser;
-import org.springframework.data.jpa.domain.AbstractPersistable;
+import org.springframework.data.domain.Persistable;
 
+/**
+ * The id of a new entry is assigned before it is first saved, from the same
+ * allocation as entries written behind through the outbox, so that ids never
+ * clash when those are moved in.
+ */
 @Entity
 @Table(name = "m_portfolio_command_source")
-public class CommandSource extends AbstractPersistable<Long> {
+public class CommandSource implements Persistable<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    @Transient
+    private boolean isNew = true;
 
     @Column(name = "action_name", nullable = true, length = 100)
     private String actionName;
@@ -236,8 +253,45 @@ public class CommandSource extends AbstractPersistable<Long> {
         return this.transactionId;
     }
 
+    public AppUser getMaker() {
+        return this.maker;
+    }
+
+    public Date getMadeOnDate() {
+        return this.madeOnDate;
+    }
+
+    public Integer getProcessingResult() {
+        return this.processingResult;
+    }
+
     public void updateTransaction(final String transactionId) {
         this.transactionId = transactionId;
     }
 
+    /**
+     * Makes this a new entry with the given id, also when it was saved before
+     * in a transaction that was rolled back.
+     */
+    public void assignId(final Long id) {
+        this.id = id;
+        this.isNew = true;
+    }
+
+    @Override
+    public Long getId() {
+        return this.id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return this.isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
 }
\ No newline at end of file
@@ -62,6 +62,8 @@ import com.google.gson.JsonObject;
 public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
     private final static Logger logger = LoggerFactory.getLogger(AuditReadPlatformServiceImpl.class);
+    private final static String AUDIT_TABLE = "m_portfolio_command_source";
+    private final static String OUTBOX_TABLE = "m_portfolio_command_source_outbox";
     private final static Set<String> supportedOrderByValues = new HashSet<>(Arrays.asList("id", "actionName", "entityName", "resourceId",
             "subresourceId", "madeOnDate", "checkedOnDate", "officeName", "groupName", "clientName", "loanAccountNo", "savingsAccountNo",
             "clientId", "loanId"));
@@ -103,6 +105,10 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
     private static final class AuditMapper implements RowMapper<AuditData> {
 
         public String schema(final boolean includeJson, final String hierarchy) {
+            return schema(includeJson, hierarchy, AUDIT_TABLE);
+        }
+
+        public String schema(final boolean includeJson, final String hierarchy, final String auditTable) {
 
             String commandAsJsonString = "";
             if (includeJson) {
@@ -115,20 +121,28 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
                     + "ck.username as checker, aud.checked_on_date as checkedOnDate, ev.enum_message_property as processingResult "
                     + commandAsJsonString + ", "
                     + " o.name as officeName, gl.level_name as groupLevelName, g.display_name as groupName, c.display_name as clientName, "
-                    + " l.account_no as loanAccountNo, s.account_no as savingsAccountNo " + " from m_portfolio_command_source aud "
+                    + " l.account_no as loanAccountNo, s.account_no as savingsAccountNo " + " from " + auditTable + " aud "
                     + " left join m_appuser mk on mk.id = aud.maker_id" + " left join m_appuser ck on ck.id = aud.checker_id"
                     + " left join m_office o on o.id = aud.office_id" + " left join m_group g on g.id = aud.group_id"
                     + " left join m_group_level gl on gl.id = g.level_id" + " left join m_client c on c.id = aud.client_id"
                     + " left join m_loan l on l.id = aud.loan_id" + " left join m_savings_account s on s.id = aud.savings_account_id"
                     + " left join r_enum_value ev on ev.enum_name = 'processing_result_enum' and ev.enum_id = aud.processing_result_enum";
 
+            return partSql + officeScope(hierarchy);
+        }
+
+        public String countSchema(final String hierarchy, final String auditTable) {
+            return " count(*) from " + auditTable + " aud " + officeScope(hierarchy);
+        }
+
+        private String officeScope(final String hierarchy) {
             // data scoping: head office (hierarchy = ".") can see all audit
             // entries
+            String officeScopeSql = "";
             if (!(hierarchy.equals("."))) {
-                partSql += " join m_office o2 on o2.id = aud.office_id and o2.hierarchy like '" + hierarchy + "%' ";
+                officeScopeSql = " join m_office o2 on o2.id = aud.office_id and o2.hierarchy like '" + hierarchy + "%' ";
             }
-
-            return partSql;
+            return officeScopeSql;
         }
 
         @Override
@@ -168,16 +182,39 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         }
     }
 
+    /**
+     * Audit entries written behind are listed from the outbox until the
+     * transfer job has moved them; they already carry their final id.
+     */
     @Override
     public Collection<AuditData> retrieveAuditEntries(final String extraCriteria, final boolean includeJson) {
 
+        final AppUser currentUser = this.context.authenticatedUser();
+        final String hierarchy = currentUser.getOffice().getHierarchy();
+
         String updatedExtraCriteria = "";
         if (StringUtils.isNotBlank(extraCriteria)) {
             updatedExtraCriteria = " where (" + extraCriteria + ")";
         }
 
-        updatedExtraCriteria += " order by aud.id DESC limit " + PaginationParameters.getCheckedLimit(null);
-        return retrieveEntries("audit", updatedExtraCriteria, includeJson);
+        final AuditMapper rm = new AuditMapper();
+        final String orderAndLimit = " order by id DESC limit " + PaginationParameters.getCheckedLimit(null);
+        final String sql = unionOfAuditAndOutbox(rm, includeJson, hierarchy, updatedExtraCriteria, orderAndLimit) + orderAndLimit;
+
+        logger.info("sql: " + sql);
+
+        return this.jdbcTemplate.query(sql, rm, new Object[] {});
+    }
+
+    /**
+     * The audit table part is ordered and limited on its own so that it does
+     * not return every matching row to the union; the outbox only holds the
+     * entries of the last transfer interval.
+     */
+    private String unionOfAuditAndOutbox(final AuditMapper rm, final boolean includeJson, final String hierarchy,
+            final String extraCriteria, final String auditOrderAndLimit) {
+        return "(select " + rm.schema(includeJson, hierarchy, AUDIT_TABLE) + extraCriteria + auditOrderAndLimit + ") union all (select "
+                + rm.schema(includeJson, hierarchy, OUTBOX_TABLE) + extraCriteria + ")";
     }
 
     @Override
@@ -194,24 +231,25 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         }
 
         final AuditMapper rm = new AuditMapper();
-        final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
-        sqlBuilder.append(rm.schema(includeJson, hierarchy));
-        sqlBuilder.append(' ').append(updatedExtraCriteria);
-
-        if (parameters.isOrderByRequested()) {
-            sqlBuilder.append(' ').append(parameters.orderBySql());
-        } else {
-            sqlBuilder.append(' ').append(' ').append(" order by aud.id DESC");
+        final String orderBy = parameters.isOrderByRequested() ? parameters.orderBySql() : " order by id DESC";
+        String auditOrderAndLimit = orderBy;
+        if (parameters.isLimited()) {
+            final int offset = parameters.isOffset() ? parameters.getOffset() : 0;
+            auditOrderAndLimit += " limit " + (offset + parameters.getLimit());
         }
 
+        final StringBuilder sqlBuilder = new StringBuilder(200);
+        sqlBuilder.append(unionOfAuditAndOutbox(rm, includeJson, hierarchy, updatedExtraCriteria, auditOrderAndLimit));
+        sqlBuilder.append(' ').append(orderBy);
+
         if (parameters.isLimited()) {
             sqlBuilder.append(' ').append(parameters.limitSql());
         }
 
         logger.info("sql: " + sqlBuilder.toString());
 
-        final String sqlCountRows = "SELECT FOUND_ROWS()";
+        final String sqlCountRows = "select (select " + rm.countSchema(hierarchy, AUDIT_TABLE) + updatedExtraCriteria + ") + (select "
+                + rm.countSchema(hierarchy, OUTBOX_TABLE) + updatedExtraCriteria + ")";
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), new Object[] {}, rm);
     }
 
@@ -269,7 +307,8 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
         final AuditMapper rm = new AuditMapper();
 
-        final String sql = "select " + rm.schema(true, hierarchy) + " where aud.id = " + auditId;
+        // an entry written behind is in the outbox until it is moved
+        final String sql = unionOfAuditAndOutbox(rm, true, hierarchy, " where aud.id = " + auditId, "");
 
         final AuditData auditResult = this.jdbcTemplate.queryForObject(sql, rm, new Object[] {});
 
@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.mifosplatform.commands.annotation.CommandType;
+import org.mifosplatform.commands.domain.CommandWrapper;
+import org.mifosplatform.commands.exception.UnsupportedCommandException;
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds the {@link NewCommandSourceHandler} of a command with a single map
+ * lookup on its entity and action names.
+ * 
+ * The map is built once all singletons are created, from the
+ * {@link CommandType} annotations of the handler beans, and is never changed
+ * afterwards.
+ */
+@Component
+public class CommandHandlerProvider implements ApplicationListener<ContextRefreshedEvent> {
+
+    /**
+     * Creating, changing, deleting and registering datatables themselves.
+     */
+    public static final String DATATABLE_ENTITY = "DATATABLE";
+    /**
+     * Entries of a datatable; an update or delete of these applies to the
+     * single entry of a one to one datatable, or to all entries of a one to
+     * many datatable.
+     */
+    public static final String DATATABLE_ENTRY_ENTITY = "DATATABLE_ENTRY";
+    /**
+     * A single entry of a one to many datatable.
+     */
+    public static final String DATATABLE_ONE_TO_MANY_ENTRY_ENTITY = "DATATABLE_ONE_TO_MANY_ENTRY";
+    public static final String SURVEY_ENTITY = "SURVEY";
+
+    private final static Logger logger = LoggerFactory.getLogger(CommandHandlerProvider.class);
+
+    private final ApplicationContext applicationContext;
+    private volatile Map<String, NewCommandSourceHandler> handlers = Collections.emptyMap();
+
+    @Autowired
+    public CommandHandlerProvider(final ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != this.applicationContext) { return; }
+
+        final Map<String, NewCommandSourceHandler> registeredHandlers = new HashMap<>();
+        final Map<String, NewCommandSourceHandler> beans = this.applicationContext.getBeansOfType(NewCommandSourceHandler.class);
+        for (final Map.Entry<String, NewCommandSourceHandler> bean : beans.entrySet()) {
+            // look up through the bean definition as transactional handlers are
+            // proxies that do not carry the annotation
+            final CommandType commandType = this.applicationContext.findAnnotationOnBean(bean.getKey(), CommandType.class);
+            if (commandType == null) {
+                continue;
+            }
+            for (final String entityName : commandType.entity()) {
+                final String key = key(entityName, commandType.action());
+                final NewCommandSourceHandler existing = registeredHandlers.put(key, bean.getValue());
+                if (existing != null) { throw new IllegalStateException("More than one command handler is registered for " + key); }
+            }
+        }
+
+        this.handlers = Collections.unmodifiableMap(registeredHandlers);
+        logger.info("Registered " + registeredHandlers.size() + " command handlers");
+    }
+
+    public NewCommandSourceHandler getHandler(final CommandWrapper wrapper) {
+        final NewCommandSourceHandler handler = this.handlers.get(key(entityNameOf(wrapper), wrapper.actionName()));
+        if (handler == null) { throw new UnsupportedCommandException(wrapper.commandName()); }
+        return handler;
+    }
+
+    private static String entityNameOf(final CommandWrapper wrapper) {
+        if (wrapper.isDatatableResource()) {
+            if (wrapper.getEntityId() == null) { return DATATABLE_ENTITY; }
+            if (wrapper.getSubentityId() == null) { return DATATABLE_ENTRY_ENTITY; }
+            return DATATABLE_ONE_TO_MANY_ENTRY_ENTITY;
+        }
+        if (wrapper.isSurveyResource()) { return SURVEY_ENTITY; }
+        return wrapper.getEntityName();
+    }
+
+    private static String key(final String entityName, final String actionName) {
+        return entityName.toUpperCase(Locale.ENGLISH) + "|" + actionName.toUpperCase(Locale.ENGLISH);
+    }
+}
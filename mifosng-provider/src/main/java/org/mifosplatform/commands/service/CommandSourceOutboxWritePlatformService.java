@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import org.mifosplatform.commands.domain.CommandSource;
+
+/**
+ * Write-behind audit trail: processed commands are written to an outbox
+ * table in the transaction of the command and moved to
+ * m_portfolio_command_source in batches afterwards by the transfer audit
+ * entries job. Every new audit entry gets its id from {@link #allocateId()}
+ * when it is written, so an entry keeps its id when it is moved and audit
+ * reads can list both tables together.
+ */
+public interface CommandSourceOutboxWritePlatformService {
+
+    Long allocateId();
+
+    /**
+     * Whether the transfer audit entries job is active and the scheduler is
+     * running, so entries written to the outbox get moved.
+     */
+    boolean isTransferActive();
+
+    void add(CommandSource commandSource);
+
+    void transferPendingEntries();
+}
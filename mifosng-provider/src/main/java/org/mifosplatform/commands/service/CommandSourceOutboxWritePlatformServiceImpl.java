@@ -0,0 +1,122 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+
+import org.mifosplatform.commands.domain.CommandSource;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class CommandSourceOutboxWritePlatformServiceImpl implements CommandSourceOutboxWritePlatformService {
+
+    private static final int TRANSFER_BATCH_SIZE = 1000;
+    private static final int ALLOCATED_IDS_KEPT = 1000;
+
+    private static final String COLUMNS = "id, action_name, entity_name, office_id, group_id, client_id, loan_id, savings_account_id, "
+            + "api_get_url, resource_id, subresource_id, command_as_json, maker_id, made_on_date, processing_result_enum, product_id, "
+            + "transaction_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CommandSourceOutboxWritePlatformServiceImpl(final RoutingDataSource dataSource, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Each id is a row of its own, so concurrent commands do not wait on each
+     * other. Every {@link #ALLOCATED_IDS_KEPT} ids the rows older than that
+     * many are removed; the recent ones are kept because the auto increment
+     * counter may be rebuilt from the highest row on restart.
+     */
+    @Override
+    public Long allocateId() {
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection con) throws SQLException {
+                return con.prepareStatement("insert into m_portfolio_command_source_id () values ()", Statement.RETURN_GENERATED_KEYS);
+            }
+        }, keyHolder);
+        final long id = keyHolder.getKey().longValue();
+        if (id % ALLOCATED_IDS_KEPT == 0) {
+            this.jdbcTemplate.update("delete from m_portfolio_command_source_id where id < ?", id - ALLOCATED_IDS_KEPT);
+        }
+        return id;
+    }
+
+    @Override
+    public boolean isTransferActive() {
+        final String sql = "select count(*) from job j, scheduler_detail sd where j.name = ? and j.is_active = 1 and sd.is_suspended = 0";
+        return this.jdbcTemplate.queryForObject(sql, Integer.class, JobName.TRANSFER_AUDIT_ENTRIES.toString()) > 0;
+    }
+
+    @Override
+    public void add(final CommandSource commandSource) {
+        final String sql = "insert into m_portfolio_command_source_outbox (" + COLUMNS
+                + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        this.jdbcTemplate.update(sql, commandSource.getId(), commandSource.getActionName(), commandSource.getEntityName(),
+                commandSource.getOfficeId(), commandSource.getGroupId(), commandSource.getClientId(), commandSource.getLoanId(),
+                commandSource.getSavingsId(), commandSource.getResourceGetUrl(), commandSource.getResourceId(),
+                commandSource.getSubresourceId(), commandSource.json(), commandSource.getMaker().getId(), commandSource.getMadeOnDate(),
+                commandSource.getProcessingResult(), commandSource.getProductId(), commandSource.getTransactionId());
+    }
+
+    /**
+     * Moves pending entries in batches, each in its own transaction. The
+     * entries of a batch are locked first so that a concurrent transfer waits
+     * and then finds them gone rather than copying them twice.
+     */
+    @Override
+    @CronTarget(jobName = JobName.TRANSFER_AUDIT_ENTRIES)
+    public void transferPendingEntries() {
+        int transferred;
+        do {
+            transferred = this.transactionTemplate.execute(new TransactionCallback<Integer>() {
+
+                @Override
+                public Integer doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                    return transferBatch();
+                }
+            });
+        } while (transferred == TRANSFER_BATCH_SIZE);
+    }
+
+    private int transferBatch() {
+        final List<Long> ids = this.jdbcTemplate.queryForList("select id from m_portfolio_command_source_outbox order by id limit "
+                + TRANSFER_BATCH_SIZE + " for update", Long.class);
+        if (ids.isEmpty()) { return 0; }
+
+        // ids are allocated before commit, so later entries may commit with
+        // lower ids: only the locked entries are moved
+        final String idsFilter = StringUtils.join(ids, ",");
+        this.jdbcTemplate.update("insert into m_portfolio_command_source (" + COLUMNS + ") select " + COLUMNS
+                + " from m_portfolio_command_source_outbox where id in (" + idsFilter + ") order by id");
+        this.jdbcTemplate.update("delete from m_portfolio_command_source_outbox where id in (" + idsFilter + ")");
+        return ids.size();
+    }
+}
@@ -1722,6 +1722,13 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder clearTenantCache() {
+        this.actionName = "DELETE";
+        this.entityName = "CACHE";
+        this.href = "/caches/tenant";
+        return this;
+    }
+
     /**
      * Deposit account mappings
      */
@@ -13,6 +13,7 @@ public class CacheApiConstants {
 
     public static final String RESOURCE_NAME = "CACHE";
     public static final String cacheTypeParameter = "cacheType";
+    public static final String clearedRegionsParameter = "clearedRegions";
     public static final Set<String> REQUEST_DATA_PARAMETERS = new HashSet<>(Arrays.asList(cacheTypeParameter));
 
 }
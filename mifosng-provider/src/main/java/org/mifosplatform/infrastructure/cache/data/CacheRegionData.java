@@ -0,0 +1,29 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.data;
+
+public class CacheRegionData {
+
+    @SuppressWarnings("unused")
+    private final String cacheName;
+    @SuppressWarnings("unused")
+    private final String regionName;
+    @SuppressWarnings("unused")
+    private final long size;
+    @SuppressWarnings("unused")
+    private final Long sizeInBytes;
+
+    public static CacheRegionData instance(final String cacheName, final String regionName, final long size, final Long sizeInBytes) {
+        return new CacheRegionData(cacheName, regionName, size, sizeInBytes);
+    }
+
+    private CacheRegionData(final String cacheName, final String regionName, final long size, final Long sizeInBytes) {
+        this.cacheName = cacheName;
+        this.regionName = regionName;
+        this.size = size;
+        this.sizeInBytes = sizeInBytes;
+    }
+}
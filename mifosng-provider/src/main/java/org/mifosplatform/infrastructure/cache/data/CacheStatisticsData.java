@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.data;
+
+public class CacheStatisticsData {
+
+    @SuppressWarnings("unused")
+    private final String cacheName;
+    @SuppressWarnings("unused")
+    private final long hitCount;
+    @SuppressWarnings("unused")
+    private final long missCount;
+    @SuppressWarnings("unused")
+    private final Double hitRatio;
+
+    public static CacheStatisticsData instance(final String cacheName, final long hitCount, final long missCount) {
+        final long requestCount = hitCount + missCount;
+        final Double hitRatio = requestCount == 0 ? null : Double.valueOf((double) hitCount / requestCount);
+        return new CacheStatisticsData(cacheName, hitCount, missCount, hitRatio);
+    }
+
+    private CacheStatisticsData(final String cacheName, final long hitCount, final long missCount, final Double hitRatio) {
+        this.cacheName = cacheName;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRatio = hitRatio;
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.distributed;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link SharedCacheStore} that exchanges invalidation messages between nodes
+ * through the <code>m_cache_invalidation</code> table of each tenant database,
+ * which every node of a deployment already shares. It keeps no values itself:
+ * each node serves entries from its {@link NearCache} and loads misses from the
+ * database.
+ *
+ * An invalidation is written in the transaction of the change that caused it,
+ * so other nodes only see it once that change is committed. Every node polls
+ * the tenants it caches entries for and follows the auto increment id of the
+ * table. An id that shows up out of order because its transaction committed
+ * late is not skipped: ids missing below the highest one read are looked up
+ * again on later polls until they appear or {@link #MISSING_ID_WAIT_SECONDS}
+ * have passed.
+ */
+@Component
+public class DatabaseSharedCacheStore implements SharedCacheStore {
+
+    private final static Logger logger = LoggerFactory.getLogger(DatabaseSharedCacheStore.class);
+
+    private static final String TENANT_REGION_SEPARATOR = "@";
+    private static final int POLL_INTERVAL_SECONDS = 2;
+    private static final int MISSING_ID_WAIT_SECONDS = 300;
+    private static final int MAX_MISSING_IDS = 1000;
+    private static final int RETENTION_MINUTES = 60;
+    private static final int MAX_CACHE_KEY_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantDetailsService tenantDetailsService;
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, InvalidationCursor> cursorsByTenant = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller;
+
+    @Autowired
+    public DatabaseSharedCacheStore(final RoutingDataSource dataSource, final TenantDetailsService tenantDetailsService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tenantDetailsService = tenantDetailsService;
+        this.poller = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "cache-invalidation-poller");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.poller.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                pollAllTenants();
+            }
+        }, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.poller.shutdownNow();
+    }
+
+    @Override
+    public Object get(final String cacheName, final Object key) {
+        watchTenantOf(cacheName);
+        return null;
+    }
+
+    @Override
+    public void put(final String cacheName, final Object key, final Object value) {
+        watchTenantOf(cacheName);
+    }
+
+    @Override
+    public void evict(final String cacheName, final Object key) {
+        watchTenantOf(cacheName);
+    }
+
+    @Override
+    public void clear(final String cacheName) {
+        watchTenantOf(cacheName);
+    }
+
+    /**
+     * Keys are sent in their string form; a key too long to store clears the
+     * whole cache on the other nodes instead.
+     */
+    @Override
+    public void publishInvalidation(final String originNodeId, final String cacheName, final Object key) {
+        String cacheKey = key == null ? null : String.valueOf(key);
+        if (cacheKey != null && cacheKey.length() > MAX_CACHE_KEY_LENGTH) {
+            cacheKey = null;
+        }
+        final String sql = "insert into m_cache_invalidation (origin_node_id, cache_name, cache_key, created_on) values (?, ?, ?, ?)";
+        this.jdbcTemplate.update(sql, originNodeId, cacheName, cacheKey, new Date());
+    }
+
+    @Override
+    public void addInvalidationListener(final CacheInvalidationListener listener) {
+        this.listeners.add(listener);
+    }
+
+    private void watchTenantOf(final String cacheName) {
+        final int separatorIndex = cacheName.lastIndexOf(TENANT_REGION_SEPARATOR);
+        if (separatorIndex < 0) { return; }
+        final String tenantIdentifier = cacheName.substring(separatorIndex + 1);
+        if (!this.cursorsByTenant.containsKey(tenantIdentifier)) {
+            // entries cached from now on are loaded after every invalidation
+            // written so far
+            final String sql = "select coalesce(max(id), 0) from m_cache_invalidation";
+            final Long lastWrittenId = this.jdbcTemplate.queryForObject(sql, Long.class);
+            this.cursorsByTenant.putIfAbsent(tenantIdentifier, new InvalidationCursor(lastWrittenId));
+        }
+    }
+
+    private void pollAllTenants() {
+        for (final Map.Entry<String, InvalidationCursor> tenantCursor : this.cursorsByTenant.entrySet()) {
+            try {
+                final MifosPlatformTenant tenant = this.tenantDetailsService.loadTenantById(tenantCursor.getKey());
+                ThreadLocalContextUtil.setTenant(tenant);
+                poll(tenantCursor.getValue());
+            } catch (final RuntimeException e) {
+                logger.warn("Polling cache invalidations of tenant " + tenantCursor.getKey() + " failed", e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    private void poll(final InvalidationCursor cursor) {
+        final List<Object> params = new ArrayList<>();
+        final StringBuilder sql = new StringBuilder(
+                "select ci.id as id, ci.origin_node_id as originNodeId, ci.cache_name as cacheName, ci.cache_key as cacheKey ")
+                .append("from m_cache_invalidation ci where ci.id > ?");
+        params.add(cursor.lastSeenId);
+        if (!cursor.missingIdsSince.isEmpty()) {
+            sql.append(" or ci.id in (");
+            for (final Long missingId : cursor.missingIdsSince.keySet()) {
+                sql.append(params.size() == 1 ? "?" : ", ?");
+                params.add(missingId);
+            }
+            sql.append(")");
+        }
+        sql.append(" order by ci.id");
+
+        final long now = System.currentTimeMillis();
+        for (final Invalidation invalidation : this.jdbcTemplate.query(sql.toString(), new InvalidationMapper(), params.toArray())) {
+            if (invalidation.id > cursor.lastSeenId) {
+                final long firstMissingId = Math.max(cursor.lastSeenId + 1, invalidation.id - MAX_MISSING_IDS);
+                for (long missingId = firstMissingId; missingId < invalidation.id; missingId++) {
+                    cursor.missingIdsSince.put(missingId, now);
+                }
+                cursor.lastSeenId = invalidation.id;
+            }
+            cursor.missingIdsSince.remove(invalidation.id);
+            for (final CacheInvalidationListener listener : this.listeners) {
+                listener.onInvalidation(invalidation.originNodeId, invalidation.cacheName, invalidation.cacheKey);
+            }
+        }
+
+        for (final Iterator<Long> firstMissed = cursor.missingIdsSince.values().iterator(); firstMissed.hasNext();) {
+            if (now - firstMissed.next() > TimeUnit.SECONDS.toMillis(MISSING_ID_WAIT_SECONDS)) {
+                firstMissed.remove();
+            }
+        }
+        while (cursor.missingIdsSince.size() > MAX_MISSING_IDS) {
+            cursor.missingIdsSince.remove(cursor.missingIdsSince.keySet().iterator().next());
+        }
+
+        if (now - cursor.lastPurgedOn > TimeUnit.MINUTES.toMillis(RETENTION_MINUTES)) {
+            final Date purgeBefore = new Date(now - TimeUnit.MINUTES.toMillis(RETENTION_MINUTES));
+            this.jdbcTemplate.update("delete from m_cache_invalidation where created_on < ?", purgeBefore);
+            cursor.lastPurgedOn = now;
+        }
+    }
+
+    /**
+     * Only touched by the poller thread once created.
+     */
+    private static final class InvalidationCursor {
+
+        private long lastSeenId;
+        private final Map<Long, Long> missingIdsSince = new HashMap<>();
+        private long lastPurgedOn;
+
+        public InvalidationCursor(final long lastSeenId) {
+            this.lastSeenId = lastSeenId;
+        }
+    }
+
+    private static final class Invalidation {
+
+        private final long id;
+        private final String originNodeId;
+        private final String cacheName;
+        private final String cacheKey;
+
+        public Invalidation(final long id, final String originNodeId, final String cacheName, final String cacheKey) {
+            this.id = id;
+            this.originNodeId = originNodeId;
+            this.cacheName = cacheName;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    private static final class InvalidationMapper implements RowMapper<Invalidation> {
+
+        @Override
+        public Invalidation mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new Invalidation(rs.getLong("id"), rs.getString("originNodeId"), rs.getString("cacheName"), rs.getString("cacheKey"));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.distributed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CacheManager} used for {@link org.mifosplatform.infrastructure.cache.domain.CacheType#MULTI_NODE}. Hands out a
+ * {@link NearCache} per cache name on top of the {@link SharedCacheStore} and
+ * drops local entries when another node announces a write.
+ * 
+ * Each near cache holds at most {@link #NEAR_CACHE_MAX_ENTRIES} entries, for
+ * the time to live given when the cache is first looked up or else
+ * {@link #NEAR_CACHE_TIME_TO_LIVE_SECONDS}.
+ */
+@Component
+public class DistributedCacheManager implements CacheManager, CacheInvalidationListener {
+
+    static final int NEAR_CACHE_MAX_ENTRIES = 10000;
+    static final long NEAR_CACHE_TIME_TO_LIVE_SECONDS = 600;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final SharedCacheStore sharedCacheStore;
+    private final ConcurrentMap<String, NearCache> caches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DistributedCacheManager(final SharedCacheStore sharedCacheStore) {
+        this.sharedCacheStore = sharedCacheStore;
+        this.sharedCacheStore.addInvalidationListener(this);
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        return getCache(name, NEAR_CACHE_TIME_TO_LIVE_SECONDS);
+    }
+
+    /**
+     * @param timeToLiveSeconds
+     *            applied when the cache is created, <code>0</code> for the
+     *            default
+     */
+    public Cache getCache(final String name, final long timeToLiveSeconds) {
+        NearCache cache = this.caches.get(name);
+        if (cache == null) {
+            final NearCache newCache = new NearCache(name, this.nodeId, this.sharedCacheStore, NEAR_CACHE_MAX_ENTRIES,
+                    timeToLiveSeconds > 0 ? timeToLiveSeconds : NEAR_CACHE_TIME_TO_LIVE_SECONDS);
+            cache = this.caches.putIfAbsent(name, newCache);
+            if (cache == null) {
+                cache = newCache;
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(this.caches.keySet());
+    }
+
+    public Collection<NearCache> getCaches() {
+        return new ArrayList<>(this.caches.values());
+    }
+
+    public void clearAll() {
+        for (final NearCache cache : this.caches.values()) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void onInvalidation(final String originNodeId, final String cacheName, final Object key) {
+        if (this.nodeId.equals(originNodeId)) { return; }
+        final NearCache cache = this.caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+        }
+    }
+}
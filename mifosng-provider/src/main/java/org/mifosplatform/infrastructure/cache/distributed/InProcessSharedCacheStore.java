@@ -0,0 +1,66 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.distributed;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link SharedCacheStore} kept in the memory of this JVM. It stands in for an
+ * external shared cache when all nodes run in one process, such as in tests.
+ * Its entries are not bounded.
+ */
+public class InProcessSharedCacheStore implements SharedCacheStore {
+
+    private final ConcurrentMap<String, ConcurrentMap<Object, Object>> caches = new ConcurrentHashMap<>();
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object get(final String cacheName, final Object key) {
+        return cacheNamed(cacheName).get(key);
+    }
+
+    @Override
+    public void put(final String cacheName, final Object key, final Object value) {
+        cacheNamed(cacheName).put(key, value);
+    }
+
+    @Override
+    public void evict(final String cacheName, final Object key) {
+        cacheNamed(cacheName).remove(key);
+    }
+
+    @Override
+    public void clear(final String cacheName) {
+        cacheNamed(cacheName).clear();
+    }
+
+    @Override
+    public void publishInvalidation(final String originNodeId, final String cacheName, final Object key) {
+        for (final CacheInvalidationListener listener : this.listeners) {
+            listener.onInvalidation(originNodeId, cacheName, key);
+        }
+    }
+
+    @Override
+    public void addInvalidationListener(final CacheInvalidationListener listener) {
+        this.listeners.add(listener);
+    }
+
+    private ConcurrentMap<Object, Object> cacheNamed(final String cacheName) {
+        ConcurrentMap<Object, Object> cache = this.caches.get(cacheName);
+        if (cache == null) {
+            final ConcurrentMap<Object, Object> newCache = new ConcurrentHashMap<>();
+            cache = this.caches.putIfAbsent(cacheName, newCache);
+            if (cache == null) {
+                cache = newCache;
+            }
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.distributed;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * A {@link Cache} that keeps a local copy of the entries read from the
+ * {@link SharedCacheStore}. Evictions, clears and puts that overwrite a value
+ * go to the shared store and are followed by an invalidation message, so the
+ * other nodes drop their local copy and read the new value next time.
+ * 
+ * A put that fills in the value missed by the previous {@link #get(Object)} on
+ * the same thread, as <code>@Cacheable</code> does after loading it, only
+ * fills the shared and local entries: the value is what every node would load
+ * anyway, so announcing it would only make the other nodes drop their copies.
+ * 
+ * The local copy holds at most <code>maxEntries</code>, dropping the least
+ * recently used entry first, and an entry expires <code>timeToLiveSeconds</code>
+ * after it was stored, so a lost invalidation is not served forever.
+ * 
+ * A value read from the shared store is only kept locally if no write or
+ * invalidation reached this cache while it was being read; otherwise the
+ * value read may already be stale.
+ * 
+ * <code>null</code> values are not cached.
+ */
+public class NearCache implements Cache {
+
+    private final String name;
+    private final String nodeId;
+    private final SharedCacheStore sharedCacheStore;
+    private final long timeToLiveMillis;
+    private final Map<Object, LocalEntry> localEntries;
+    // guarded by localEntries, advanced by every write and invalidation
+    private long generation;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    public NearCache(final String name, final String nodeId, final SharedCacheStore sharedCacheStore, final int maxEntries,
+            final long timeToLiveSeconds) {
+        this.name = name;
+        this.nodeId = nodeId;
+        this.sharedCacheStore = sharedCacheStore;
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLiveSeconds);
+        this.localEntries = new LinkedHashMap<Object, LocalEntry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.sharedCacheStore;
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        Object value = null;
+        final long generationBeforeRead;
+        synchronized (this.localEntries) {
+            final LocalEntry entry = this.localEntries.get(key);
+            if (entry != null && entry.hasExpired(System.currentTimeMillis())) {
+                this.localEntries.remove(key);
+            } else if (entry != null) {
+                value = entry.value;
+            }
+            generationBeforeRead = this.generation;
+        }
+        if (value == null) {
+            value = this.sharedCacheStore.get(this.name, key);
+            if (value != null) {
+                synchronized (this.localEntries) {
+                    if (this.generation == generationBeforeRead) {
+                        putLocal(key, value);
+                    }
+                }
+            }
+        }
+        if (value == null) {
+            this.pendingLoad.set(new PendingLoad(key, generationBeforeRead));
+            this.misses.incrementAndGet();
+            return null;
+        }
+        this.pendingLoad.remove();
+        this.hits.incrementAndGet();
+        return new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Class<T> type) {
+        final ValueWrapper wrapper = get(key);
+        final Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) { throw new IllegalStateException(
+                "Cached value is not of required type [" + type.getName() + "]: " + value); }
+        return (T) value;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        final PendingLoad load = this.pendingLoad.get();
+        this.pendingLoad.remove();
+        if (load != null && load.key.equals(key)) {
+            fillLoaded(key, value, load.generation);
+            return;
+        }
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        this.sharedCacheStore.put(this.name, key, value);
+        synchronized (this.localEntries) {
+            this.generation++;
+            putLocal(key, value);
+        }
+        this.sharedCacheStore.publishInvalidation(this.nodeId, this.name, key);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        this.sharedCacheStore.evict(this.name, key);
+        invalidateLocal(key);
+        this.sharedCacheStore.publishInvalidation(this.nodeId, this.name, key);
+    }
+
+    @Override
+    public void clear() {
+        this.sharedCacheStore.clear(this.name);
+        invalidateLocal(null);
+        this.sharedCacheStore.publishInvalidation(this.nodeId, this.name, null);
+    }
+
+    private void fillLoaded(final Object key, final Object value, final long generationBeforeLoad) {
+        if (value == null) { return; }
+        this.sharedCacheStore.put(this.name, key, value);
+        synchronized (this.localEntries) {
+            if (this.generation == generationBeforeLoad) {
+                putLocal(key, value);
+            }
+        }
+    }
+
+    /**
+     * Drops local entries only, in response to a write on another node. Keys
+     * that arrive from another node may be in their string form.
+     */
+    void invalidateLocal(final Object key) {
+        synchronized (this.localEntries) {
+            this.generation++;
+            if (key == null) {
+                this.localEntries.clear();
+            } else if (this.localEntries.remove(key) == null && key instanceof String) {
+                for (final Iterator<Object> keys = this.localEntries.keySet().iterator(); keys.hasNext();) {
+                    if (key.equals(String.valueOf(keys.next()))) {
+                        keys.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private void putLocal(final Object key, final Object value) {
+        this.localEntries.put(key, new LocalEntry(value, System.currentTimeMillis() + this.timeToLiveMillis));
+    }
+
+    public long getSize() {
+        synchronized (this.localEntries) {
+            return this.localEntries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    private static final class PendingLoad {
+
+        private final Object key;
+        private final long generation;
+
+        public PendingLoad(final Object key, final long generation) {
+            this.key = key;
+            this.generation = generation;
+        }
+    }
+
+    private static final class LocalEntry {
+
+        private final Object value;
+        private final long expiresOn;
+
+        public LocalEntry(final Object value, final long expiresOn) {
+            this.value = value;
+            this.expiresOn = expiresOn;
+        }
+
+        public boolean hasExpired(final long now) {
+            return now >= this.expiresOn;
+        }
+    }
+}
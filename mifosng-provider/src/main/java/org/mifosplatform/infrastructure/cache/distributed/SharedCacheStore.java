@@ -0,0 +1,38 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.distributed;
+
+/**
+ * The cache shared by all nodes of a multi node deployment together with the
+ * channel over which nodes tell each other to drop entries from their near
+ * caches.
+ * 
+ * {@link DatabaseSharedCacheStore} is the default implementation: it shares
+ * invalidations through the tenant database and leaves values to the near
+ * caches. A deployment backed by an external cache replaces that bean.
+ */
+public interface SharedCacheStore {
+
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+
+    /**
+     * Sends an invalidation message to every node, including the sender.
+     * Listeners on other nodes may receive the key in its string form.
+     * 
+     * @param key
+     *            the evicted key, or <code>null</code> when the whole cache
+     *            was cleared
+     */
+    void publishInvalidation(String originNodeId, String cacheName, Object key);
+
+    void addInvalidationListener(CacheInvalidationListener listener);
+}
@@ -12,4 +12,6 @@ import org.mifosplatform.infrastructure.cache.domain.CacheType;
 public interface CacheWritePlatformService {
 
     Map<String, Object> switchToCache(CacheType cacheType);
+
+    Map<String, Object> clearTenantCache();
 }
\ No newline at end of file
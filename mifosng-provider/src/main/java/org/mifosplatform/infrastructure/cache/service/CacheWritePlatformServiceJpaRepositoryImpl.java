@@ -5,10 +5,14 @@
  */
 package org.mifosplatform.infrastructure.cache.service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.mifosplatform.infrastructure.cache.CacheApiConstants;
 import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -32,8 +36,9 @@ public class CacheWritePlatformServiceJpaRepositoryImpl implements CacheWritePla
     public Map<String, Object> switchToCache(final CacheType toCacheType) {
 
         final boolean ehCacheEnabled = this.configurationDomainService.isEhcacheEnabled();
+        final boolean distributedCacheEnabled = this.configurationDomainService.isDistributedCacheEnabled();
 
-        final Map<String, Object> changes = this.cacheService.switchToCache(ehCacheEnabled, toCacheType);
+        final Map<String, Object> changes = this.cacheService.switchToCache(ehCacheEnabled, distributedCacheEnabled, toCacheType);
 
         if (!changes.isEmpty()) {
             this.configurationDomainService.updateCache(toCacheType);
@@ -41,4 +46,17 @@ public class CacheWritePlatformServiceJpaRepositoryImpl implements CacheWritePla
 
         return changes;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<String, Object> clearTenantCache() {
+
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Collection<String> clearedRegions = this.cacheService.clearTenantRegions(tenantIdentifier);
+
+        final Map<String, Object> changes = new HashMap<>();
+        if (!clearedRegions.isEmpty()) {
+            changes.put(CacheApiConstants.clearedRegionsParameter, clearedRegions);
+        }
+        return changes;
+    }
+}
@@ -5,16 +5,29 @@
  */
 package org.mifosplatform.infrastructure.cache.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.MemoryUnit;
 
 import org.mifosplatform.infrastructure.cache.CacheApiConstants;
 import org.mifosplatform.infrastructure.cache.CacheEnumerations;
 import org.mifosplatform.infrastructure.cache.data.CacheData;
+import org.mifosplatform.infrastructure.cache.data.CacheRegionData;
+import org.mifosplatform.infrastructure.cache.data.CacheStatisticsData;
+import org.mifosplatform.infrastructure.cache.distributed.DistributedCacheManager;
+import org.mifosplatform.infrastructure.cache.distributed.NearCache;
 import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
@@ -29,23 +42,58 @@ import org.springframework.stereotype.Component;
  * By default it is {@link NoOpCacheManager} but we can change that by checking
  * some persisted configuration in the database on startup and allow user to
  * switch implementation through UI/API
+ * 
+ * {@link CacheType#MULTI_NODE} delegates to the {@link DistributedCacheManager}
+ * which keeps a near cache on each node in front of a shared cache.
+ * 
+ * The caches used to authenticate every API request are always served by
+ * ehcache, whichever implementation is current. They are bounded and expire
+ * entries after a time to live (see ehcache.xml), so changes made outside the
+ * platform or on another node are picked up without switching caches.
+ * 
+ * All other caches are split into one region per tenant, named
+ * <code>cache@tenantIdentifier</code>, so that the entries of one tenant can
+ * be inspected and cleared without touching the others. With ehcache a region
+ * is created on first use with the settings of its cache in ehcache.xml,
+ * including its own heap budget. A multi node region takes the time to live
+ * of its cache from ehcache.xml. Looking up one of these caches without a
+ * current tenant is a programming error and fails.
  */
 @Component(value = "runtimeDelegatingCacheManager")
 public class RuntimeDelegatingCacheManager implements CacheManager {
 
+    private static final String TENANT_REGION_SEPARATOR = "@";
+
     private final EhCacheCacheManager ehcacheCacheManager;
+    private final DistributedCacheManager distributedCacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
+    private final Set<String> alwaysEnabledCacheNames = new HashSet<>(Arrays.asList("tenantsById", "authenticatedUsers"));
     private CacheManager currentCacheManager;
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager) {
+    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager,
+            final DistributedCacheManager distributedCacheManager) {
         this.ehcacheCacheManager = ehCacheCacheManager;
+        this.distributedCacheManager = distributedCacheManager;
         this.currentCacheManager = this.noOpCacheManager;
     }
 
     @Override
     public Cache getCache(final String name) {
-        return this.currentCacheManager.getCache(name);
+        if (this.alwaysEnabledCacheNames.contains(name)) { return this.ehcacheCacheManager.getCache(name); }
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) { throw new IllegalStateException("Cache " + name + " used without a current tenant"); }
+
+        final CacheManager cacheManager = this.currentCacheManager;
+        if (cacheManager instanceof NoOpCacheManager) { return cacheManager.getCache(name); }
+
+        final String regionName = tenantRegionName(name, tenant.getTenantIdentifier());
+        if (cacheManager instanceof EhCacheCacheManager) {
+            addEhcacheRegionIfAbsent(name, regionName);
+        } else if (cacheManager instanceof DistributedCacheManager) { return this.distributedCacheManager.getCache(regionName,
+                ehcacheConfigurationOf(name).getTimeToLiveSeconds()); }
+        return cacheManager.getCache(regionName);
     }
 
     @Override
@@ -57,29 +105,96 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
         final boolean noCacheEnabled = this.currentCacheManager instanceof NoOpCacheManager;
         final boolean ehcacheEnabled = this.currentCacheManager instanceof EhCacheCacheManager;
-
-        // final boolean distributedCacheEnabled = false;
+        final boolean distributedCacheEnabled = this.currentCacheManager instanceof DistributedCacheManager;
 
         final EnumOptionData noCacheType = CacheEnumerations.cacheType(CacheType.NO_CACHE);
         final EnumOptionData singleNodeCacheType = CacheEnumerations.cacheType(CacheType.SINGLE_NODE);
-        // final EnumOptionData multiNodeCacheType =
-        // CacheEnumerations.cacheType(CacheType.MULTI_NODE);
+        final EnumOptionData multiNodeCacheType = CacheEnumerations.cacheType(CacheType.MULTI_NODE);
 
         final CacheData noCache = CacheData.instance(noCacheType, noCacheEnabled);
         final CacheData singleNodeCache = CacheData.instance(singleNodeCacheType, ehcacheEnabled);
-        // final CacheData distributedCache =
-        // CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
+        final CacheData distributedCache = CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
 
-        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache);
+        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache, distributedCache);
         return caches;
     }
 
-    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
+    /**
+     * Hit and miss counts of the caches of the current implementation.
+     */
+    public Collection<CacheStatisticsData> retrieveStatistics() {
+        final Collection<CacheStatisticsData> statistics = new ArrayList<>();
+        if (this.currentCacheManager instanceof DistributedCacheManager) {
+            for (final NearCache cache : this.distributedCacheManager.getCaches()) {
+                statistics.add(CacheStatisticsData.instance(cache.getName(), cache.getHitCount(), cache.getMissCount()));
+            }
+        } else if (this.currentCacheManager instanceof EhCacheCacheManager) {
+            for (final String cacheName : this.ehcacheCacheManager.getCacheManager().getCacheNames()) {
+                final Ehcache cache = this.ehcacheCacheManager.getCacheManager().getEhcache(cacheName);
+                statistics.add(CacheStatisticsData.instance(cacheName, cache.getStatistics().cacheHitCount(), cache.getStatistics()
+                        .cacheMissCount()));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Size of each region of the given tenant in the current implementation.
+     * Only ehcache measures the memory used by a region.
+     */
+    public Collection<CacheRegionData> retrieveTenantRegions(final String tenantIdentifier) {
+        final Collection<CacheRegionData> regions = new ArrayList<>();
+        if (this.currentCacheManager instanceof DistributedCacheManager) {
+            for (final NearCache cache : this.distributedCacheManager.getCaches()) {
+                final String cacheName = cacheNameOfTenantRegion(cache.getName(), tenantIdentifier);
+                if (cacheName != null) {
+                    regions.add(CacheRegionData.instance(cacheName, cache.getName(), cache.getSize(), null));
+                }
+            }
+        } else if (this.currentCacheManager instanceof EhCacheCacheManager) {
+            for (final String regionName : this.ehcacheCacheManager.getCacheManager().getCacheNames()) {
+                final String cacheName = cacheNameOfTenantRegion(regionName, tenantIdentifier);
+                if (cacheName != null) {
+                    final Ehcache cache = this.ehcacheCacheManager.getCacheManager().getEhcache(regionName);
+                    regions.add(CacheRegionData.instance(cacheName, regionName, cache.getSize(), cache.getStatistics()
+                            .getLocalHeapSizeInBytes()));
+                }
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Removes all entries of the given tenant from the current implementation.
+     * 
+     * @return the names of the regions cleared
+     */
+    public Collection<String> clearTenantRegions(final String tenantIdentifier) {
+        final Collection<String> clearedRegions = new ArrayList<>();
+        if (this.currentCacheManager instanceof DistributedCacheManager) {
+            for (final NearCache cache : this.distributedCacheManager.getCaches()) {
+                if (cacheNameOfTenantRegion(cache.getName(), tenantIdentifier) != null) {
+                    cache.clear();
+                    clearedRegions.add(cache.getName());
+                }
+            }
+        } else if (this.currentCacheManager instanceof EhCacheCacheManager) {
+            for (final String regionName : this.ehcacheCacheManager.getCacheManager().getCacheNames()) {
+                if (cacheNameOfTenantRegion(regionName, tenantIdentifier) != null) {
+                    this.ehcacheCacheManager.getCacheManager().getEhcache(regionName).removeAll();
+                    clearedRegions.add(regionName);
+                }
+            }
+        }
+        return clearedRegions;
+    }
+
+    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final boolean distributedCacheEnabled,
+            final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
 
-        final boolean noCacheEnabled = !ehcacheEnabled;
-        final boolean distributedCacheEnabled = !ehcacheEnabled;
+        final boolean noCacheEnabled = !ehcacheEnabled && !distributedCacheEnabled;
 
         switch (toCacheType) {
             case INVALID:
@@ -100,7 +215,9 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
             case MULTI_NODE:
                 if (!distributedCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
+                    this.distributedCacheManager.clearAll();
                 }
+                this.currentCacheManager = this.distributedCacheManager;
             break;
         }
 
@@ -110,4 +227,35 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
     private void clearEhCache() {
         this.ehcacheCacheManager.getCacheManager().clearAll();
     }
-}
\ No newline at end of file
+
+    private static String tenantRegionName(final String cacheName, final String tenantIdentifier) {
+        return cacheName + TENANT_REGION_SEPARATOR + tenantIdentifier;
+    }
+
+    /**
+     * @return the cache name if the region belongs to the tenant, otherwise
+     *         <code>null</code>
+     */
+    private static String cacheNameOfTenantRegion(final String regionName, final String tenantIdentifier) {
+        final String suffix = TENANT_REGION_SEPARATOR + tenantIdentifier;
+        if (!regionName.endsWith(suffix)) { return null; }
+        return regionName.substring(0, regionName.length() - suffix.length());
+    }
+
+    private void addEhcacheRegionIfAbsent(final String cacheName, final String regionName) {
+        final net.sf.ehcache.CacheManager cacheManager = this.ehcacheCacheManager.getCacheManager();
+        if (cacheManager.cacheExists(regionName)) { return; }
+
+        final CacheConfiguration baseConfiguration = ehcacheConfigurationOf(cacheName);
+        final CacheConfiguration regionConfiguration = new CacheConfiguration().name(regionName).eternal(baseConfiguration.isEternal())
+                .timeToLiveSeconds(baseConfiguration.getTimeToLiveSeconds()).timeToIdleSeconds(baseConfiguration.getTimeToIdleSeconds())
+                .maxBytesLocalHeap(baseConfiguration.getMaxBytesLocalHeap(), MemoryUnit.BYTES);
+        cacheManager.addCacheIfAbsent(new net.sf.ehcache.Cache(regionConfiguration));
+    }
+
+    private CacheConfiguration ehcacheConfigurationOf(final String cacheName) {
+        final net.sf.ehcache.CacheManager cacheManager = this.ehcacheCacheManager.getCacheManager();
+        final Ehcache cache = cacheManager.getEhcache(cacheName);
+        return cache == null ? cacheManager.getConfiguration().getDefaultCacheConfiguration() : cache.getCacheConfiguration();
+    }
+}
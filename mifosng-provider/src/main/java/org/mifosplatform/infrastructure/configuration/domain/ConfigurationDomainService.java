@@ -25,6 +25,8 @@ public interface ConfigurationDomainService {
 
     boolean isEhcacheEnabled();
 
+    boolean isDistributedCacheEnabled();
+
     void updateCache(CacheType cacheType);
 
     Long retrievePenaltyWaitPeriod();
@@ -34,5 +36,13 @@ public interface ConfigurationDomainService {
     Long retrievePasswordLiveTime();
 
     Long retrieveGraceOnPenaltyPostingPeriod();
+
+    boolean isIncrementalLoanSummaryUpdateEnabled();
+
+    Long retrieveLoanSummaryUpdateChunkSize();
+
+    Long retrieveJobPartitionConcurrencyPerTenant();
+
+    boolean isWriteBehindAuditEnabled();
     
 }
\ No newline at end of file
@@ -99,6 +99,11 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         return this.cacheTypeRepository.findOne(Long.valueOf(1)).isEhcacheEnabled();
     }
 
+    @Override
+    public boolean isDistributedCacheEnabled() {
+        return this.cacheTypeRepository.findOne(Long.valueOf(1)).isDistributedCacheEnabled();
+    }
+
     @Transactional
     @Override
     public void updateCache(final CacheType cacheType) {
@@ -136,4 +141,33 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         return property.getValue();
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean isIncrementalLoanSummaryUpdateEnabled() {
+        final String propertyName = "incremental-loan-summary-update";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        return property.isEnabled();
+    }
+
+    @Override
+    public Long retrieveLoanSummaryUpdateChunkSize() {
+        final String propertyName = "incremental-loan-summary-update";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        return property.getValue();
+    }
+
+    @Override
+    public Long retrieveJobPartitionConcurrencyPerTenant() {
+        final String propertyName = "job-partition-concurrency-per-tenant";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        if (!property.isEnabled()) { return Long.valueOf(1); }
+        return property.getValue();
+    }
+
+    @Override
+    public boolean isWriteBehindAuditEnabled() {
+        final String propertyName = "write-behind-audit";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        return property.isEnabled();
+    }
+
+}
@@ -91,6 +91,15 @@ public class ApiParameterHelper {
         return exportPDF;
     }
 
+    public static boolean runAsync(final MultivaluedMap<String, String> queryParams) {
+        boolean runAsync = false;
+        if (queryParams.getFirst("async") != null) {
+            final String runAsyncValue = queryParams.getFirst("async");
+            runAsync = "true".equalsIgnoreCase(runAsyncValue);
+        }
+        return runAsync;
+    }
+
     public static boolean parameterType(final MultivaluedMap<String, String> queryParams) {
         boolean parameterType = false;
         if (queryParams.getFirst("parameterType") != null) {
@@ -0,0 +1,57 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.data;
+
+import java.util.Collection;
+
+/**
+ * Immutable data object representing the live statistics of the connection
+ * pool used by the current tenant.
+ */
+public class DataSourcePoolData {
+
+    @SuppressWarnings("unused")
+    private final String poolName;
+    @SuppressWarnings("unused")
+    private final int size;
+    @SuppressWarnings("unused")
+    private final int active;
+    @SuppressWarnings("unused")
+    private final int idle;
+    @SuppressWarnings("unused")
+    private final int waitCount;
+    @SuppressWarnings("unused")
+    private final int maxActive;
+    @SuppressWarnings("unused")
+    private final int minIdle;
+    @SuppressWarnings("unused")
+    private final int maxIdle;
+    @SuppressWarnings("unused")
+    private final int maxWaitMillis;
+    @SuppressWarnings("unused")
+    private final Collection<DataSourceSlowQueryData> slowQueries;
+
+    public static DataSourcePoolData instance(final String poolName, final int size, final int active, final int idle,
+            final int waitCount, final int maxActive, final int minIdle, final int maxIdle, final int maxWaitMillis,
+            final Collection<DataSourceSlowQueryData> slowQueries) {
+        return new DataSourcePoolData(poolName, size, active, idle, waitCount, maxActive, minIdle, maxIdle, maxWaitMillis, slowQueries);
+    }
+
+    private DataSourcePoolData(final String poolName, final int size, final int active, final int idle, final int waitCount,
+            final int maxActive, final int minIdle, final int maxIdle, final int maxWaitMillis,
+            final Collection<DataSourceSlowQueryData> slowQueries) {
+        this.poolName = poolName;
+        this.size = size;
+        this.active = active;
+        this.idle = idle;
+        this.waitCount = waitCount;
+        this.maxActive = maxActive;
+        this.minIdle = minIdle;
+        this.maxIdle = maxIdle;
+        this.maxWaitMillis = maxWaitMillis;
+        this.slowQueries = slowQueries;
+    }
+}
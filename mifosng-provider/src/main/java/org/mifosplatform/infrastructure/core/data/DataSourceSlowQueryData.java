@@ -0,0 +1,38 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.data;
+
+/**
+ * Immutable data object representing a query reported as slow by the
+ * connection pool.
+ */
+public class DataSourceSlowQueryData {
+
+    @SuppressWarnings("unused")
+    private final String query;
+    @SuppressWarnings("unused")
+    private final int invocations;
+    @SuppressWarnings("unused")
+    private final int failures;
+    @SuppressWarnings("unused")
+    private final long totalInvocationTimeMillis;
+    @SuppressWarnings("unused")
+    private final long maxInvocationTimeMillis;
+
+    public static DataSourceSlowQueryData instance(final String query, final int invocations, final int failures,
+            final long totalInvocationTimeMillis, final long maxInvocationTimeMillis) {
+        return new DataSourceSlowQueryData(query, invocations, failures, totalInvocationTimeMillis, maxInvocationTimeMillis);
+    }
+
+    private DataSourceSlowQueryData(final String query, final int invocations, final int failures, final long totalInvocationTimeMillis,
+            final long maxInvocationTimeMillis) {
+        this.query = query;
+        this.invocations = invocations;
+        this.failures = failures;
+        this.totalInvocationTimeMillis = totalInvocationTimeMillis;
+        this.maxInvocationTimeMillis = maxInvocationTimeMillis;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.filters;
+
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Context;
+
+import com.sun.jersey.api.core.HttpContext;
+import com.sun.jersey.api.uri.UriTemplate;
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.spi.container.ContainerResponse;
+import com.sun.jersey.spi.container.ContainerResponseFilter;
+
+/**
+ * Filter that stores the path template of the resource method that served a
+ * request, such as <code>/loans/{loanId}</code>, as a servlet request
+ * attribute so that servlet filters can group requests by resource rather
+ * than by raw path. Requests that match no resource get no attribute.
+ */
+public class MatchedResourceTemplateFilter implements ContainerResponseFilter {
+
+    public static final String MATCHED_RESOURCE_TEMPLATE_ATTRIBUTE = MatchedResourceTemplateFilter.class.getName() + ".template";
+
+    @Context
+    private HttpContext httpContext;
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    @Override
+    public ContainerResponse filter(final ContainerRequest request, final ContainerResponse response) {
+
+        // ordered from the last matched template to the first
+        final List<UriTemplate> matchedTemplates = this.httpContext.getUriInfo().getMatchedTemplates();
+        if (matchedTemplates == null || matchedTemplates.isEmpty()) { return response; }
+
+        final StringBuilder template = new StringBuilder();
+        for (int i = matchedTemplates.size() - 1; i >= 0; i--) {
+            final String segment = matchedTemplates.get(i).getTemplate();
+            if (segment.isEmpty() || "/".equals(segment)) {
+                continue;
+            }
+            if (!segment.startsWith("/")) {
+                template.append('/');
+            }
+            template.append(segment.endsWith("/") ? segment.substring(0, segment.length() - 1) : segment);
+        }
+        this.servletRequest.setAttribute(MATCHED_RESOURCE_TEMPLATE_ATTRIBUTE, template.length() == 0 ? "/" : template.toString());
+
+        return response;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport;
+import org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport.QueryStats;
+import org.mifosplatform.infrastructure.core.data.DataSourcePoolData;
+import org.mifosplatform.infrastructure.core.data.DataSourceSlowQueryData;
+import org.mifosplatform.infrastructure.core.exception.PlatformInternalServerException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DataSourcePoolReadPlatformServiceImpl implements DataSourcePoolReadPlatformService {
+
+    private final RoutingDataSourceServiceFactory dataSourceServiceFactory;
+
+    @Autowired
+    public DataSourcePoolReadPlatformServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory) {
+        this.dataSourceServiceFactory = dataSourceServiceFactory;
+    }
+
+    @Override
+    public DataSourcePoolData retrieveCurrentTenantPool() {
+        final DataSource dataSource = this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource();
+        if (!(dataSource instanceof org.apache.tomcat.jdbc.pool.DataSource)) { throw new PlatformInternalServerException(
+                "error.msg.datasource.pool.statistics.not.available", "Connection pool statistics are not available for this datasource"); }
+
+        final org.apache.tomcat.jdbc.pool.DataSource pool = (org.apache.tomcat.jdbc.pool.DataSource) dataSource;
+        final PoolConfiguration poolConfiguration = pool.getPoolProperties();
+
+        final Collection<DataSourceSlowQueryData> slowQueries = new ArrayList<>();
+        final Map<String, QueryStats> queryStats = SlowQueryReport.getPoolStats(poolConfiguration.getName());
+        if (queryStats != null) {
+            for (final QueryStats stats : queryStats.values()) {
+                slowQueries.add(DataSourceSlowQueryData.instance(stats.getQuery(), stats.getNrOfInvocations(), stats.getFailures(),
+                        stats.getTotalInvocationTime(), stats.getMaxInvocationTime()));
+            }
+        }
+
+        return DataSourcePoolData.instance(poolConfiguration.getName(), pool.getSize(), pool.getActive(), pool.getIdle(),
+                pool.getWaitCount(), poolConfiguration.getMaxActive(), poolConfiguration.getMinIdle(), poolConfiguration.getMaxIdle(),
+                poolConfiguration.getMaxWait(), slowQueries);
+    }
+}
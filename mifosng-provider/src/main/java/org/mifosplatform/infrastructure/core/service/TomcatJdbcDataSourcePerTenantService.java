@@ -5,8 +5,8 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.sql.DataSource;
 
@@ -28,7 +28,7 @@ import org.springframework.stereotype.Service;
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final ConcurrentMap<Long, DataSource> tenantToDataSourceMap = new ConcurrentHashMap<>(1);
     private final DataSource tenantDataSource;
 
     @Autowired
@@ -44,15 +44,17 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
         if (tenant != null) {
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenant information available switch to appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenant.getId())) {
+            // if tenant information available switch to appropriate datasource
+            // for that tenant; the lock is only taken the first time a tenant
+            // is seen so that its pool is created once
+            tenantDataSource = this.tenantToDataSourceMap.get(tenant.getId());
+            if (tenantDataSource == null) {
+                synchronized (this.tenantToDataSourceMap) {
                     tenantDataSource = this.tenantToDataSourceMap.get(tenant.getId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenant);
-                    this.tenantToDataSourceMap.put(tenant.getId(), tenantDataSource);
+                    if (tenantDataSource == null) {
+                        tenantDataSource = createNewDataSourceFor(tenant);
+                        this.tenantToDataSourceMap.put(tenant.getId(), tenantDataSource);
+                    }
                 }
             }
         }
@@ -84,17 +86,28 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         poolConfiguration.setLogAbandoned(tenant.isLogAbandoned());
         poolConfiguration.setAbandonWhenPercentageFull(tenant.getAbandonWhenPercentageFull());
 
-        /**
-         * Vishwas- Do we need to enable the below properties and add
-         * ResetAbandonedTimer for long running batch Jobs?
-         **/
-        // poolConfiguration.setMaxActive(tenant.getMaxActive());
-        // poolConfiguration.setMinIdle(tenant.getMinIdle());
-        // poolConfiguration.setMaxIdle(tenant.getMaxIdle());
-
-        // poolConfiguration.setSuspectTimeout(tenant.getSuspectTimeout());
-        // poolConfiguration.setTimeBetweenEvictionRunsMillis(tenant.getTimeBetweenEvictionRunsMillis());
-        // poolConfiguration.setMinEvictableIdleTimeMillis(tenant.getMinEvictableIdleTimeMillis());
+        // pool sizing and eviction are only overridden when configured for
+        // the tenant, otherwise the tomcat jdbc pool defaults apply; the
+        // tenants columns are null unless set, which is read as 0
+        if (tenant.getMaxActive() > 0) {
+            poolConfiguration.setMaxActive(tenant.getMaxActive());
+        }
+        if (tenant.getMinIdle() > 0) {
+            poolConfiguration.setMinIdle(tenant.getMinIdle());
+        }
+        if (tenant.getMaxIdle() > 0) {
+            poolConfiguration.setMaxIdle(tenant.getMaxIdle());
+        }
+
+        if (tenant.getSuspectTimeout() > 0) {
+            poolConfiguration.setSuspectTimeout(tenant.getSuspectTimeout());
+        }
+        if (tenant.getTimeBetweenEvictionRunsMillis() > 0) {
+            poolConfiguration.setTimeBetweenEvictionRunsMillis(tenant.getTimeBetweenEvictionRunsMillis());
+        }
+        if (tenant.getMinEvictableIdleTimeMillis() > 0) {
+            poolConfiguration.setMinEvictableIdleTimeMillis(tenant.getMinEvictableIdleTimeMillis());
+        }
 
         poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
                 + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport");
@@ -0,0 +1,155 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+
+import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
+import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportRunData;
+import org.mifosplatform.infrastructure.dataqueries.service.ReportRunService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Status and output of report runs submitted with
+ * <code>runreports/{reportName}?async=true</code>. Runs are only visible to the
+ * user who submitted them.
+ */
+@Path("/reportruns")
+@Component
+@Scope("singleton")
+public class ReportRunsApiResource {
+
+    private static final Pattern BYTE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    private final ReportRunService reportRunService;
+    private final ToApiJsonSerializer<ReportRunData> toApiJsonSerializer;
+
+    @Autowired
+    public ReportRunsApiResource(final ReportRunService reportRunService, final ToApiJsonSerializer<ReportRunData> toApiJsonSerializer) {
+        this.reportRunService = reportRunService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+    }
+
+    @GET
+    @Path("{runId}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveReportRun(@PathParam("runId") final Long runId, @Context final UriInfo uriInfo) {
+
+        final ReportRunData run = this.reportRunService.retrieveReportRun(runId);
+
+        final boolean prettyPrint = ApiParameterHelper.prettyPrint(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serializePretty(prettyPrint, run);
+    }
+
+    /**
+     * Downloads the spooled output of a completed run. A single
+     * <code>Range: bytes=first-last</code> header is honoured so that large
+     * outputs can be fetched in parts or resumed; any other range header is
+     * answered with the whole output.
+     */
+    @GET
+    @Path("{runId}/output")
+    @Produces({ MediaType.APPLICATION_JSON, "application/x-msdownload", "application/vnd.ms-excel", "application/pdf", "text/html" })
+    public Response retrieveReportRunOutput(@PathParam("runId") final Long runId, @HeaderParam("Range") final String range) {
+
+        final ReportRunData run = this.reportRunService.retrieveReportRun(runId);
+        final File output = this.reportRunService.retrieveReportRunOutput(runId);
+        final long length = output.length();
+        final String fileName = run.getReportName().replaceAll(" ", "") + "." + run.getOutputType().toLowerCase();
+
+        long first = 0;
+        long last = length - 1;
+        boolean partial = false;
+        final Matcher rangeMatcher = range == null ? null : BYTE_RANGE.matcher(range.trim());
+        if (rangeMatcher != null && rangeMatcher.matches() && !(rangeMatcher.group(1).isEmpty() && rangeMatcher.group(2).isEmpty())) {
+            if (rangeMatcher.group(1).isEmpty()) {
+                // suffix range: the last n bytes
+                first = Math.max(0, length - byteOffsetOf(rangeMatcher.group(2)));
+            } else {
+                first = byteOffsetOf(rangeMatcher.group(1));
+                if (!rangeMatcher.group(2).isEmpty()) {
+                    last = Math.min(last, byteOffsetOf(rangeMatcher.group(2)));
+                }
+            }
+            if (first >= length || first > last) { return Response.status(416).header("Content-Range", "bytes */" + length).build(); }
+            partial = true;
+        }
+
+        final Response.ResponseBuilder response = partial ? Response.status(206).header("Content-Range",
+                "bytes " + first + "-" + last + "/" + length) : Response.ok();
+        return response.entity(new FileRangeOutput(output, first, last - first + 1)).type(run.getContentType())
+                .header("Accept-Ranges", "bytes").header("Content-Length", last - first + 1)
+                .header("Content-Disposition", "attachment;filename=" + fileName).build();
+    }
+
+    /**
+     * Offsets too large for a long lie beyond the end of any output, so they
+     * are treated as the largest long: a first byte past the end is answered
+     * with 416 and a last byte or suffix length past the end covers the rest.
+     */
+    private static long byteOffsetOf(final String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (final NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static final class FileRangeOutput implements StreamingOutput {
+
+        private final File file;
+        private final long offset;
+        private final long count;
+
+        public FileRangeOutput(final File file, final long offset, final long count) {
+            this.file = file;
+            this.offset = offset;
+            this.count = count;
+        }
+
+        @Override
+        public void write(final OutputStream out) throws IOException {
+            final RandomAccessFile in = new RandomAccessFile(this.file, "r");
+            try {
+                in.seek(this.offset);
+                final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                long remaining = this.count;
+                while (remaining > 0) {
+                    final int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read == -1) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            } finally {
+                in.close();
+            }
+        }
+    }
+}
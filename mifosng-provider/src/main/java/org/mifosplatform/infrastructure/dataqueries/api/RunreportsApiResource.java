@@ -21,6 +21,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
@@ -28,8 +29,9 @@ import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
 import org.mifosplatform.infrastructure.dataqueries.data.ReportData;
-import org.mifosplatform.infrastructure.dataqueries.service.GenericDataService;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportRunData;
 import org.mifosplatform.infrastructure.dataqueries.service.ReadReportingService;
+import org.mifosplatform.infrastructure.dataqueries.service.ReportRunService;
 import org.mifosplatform.infrastructure.security.exception.NoAuthorizationException;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.useradministration.domain.AppUser;
@@ -45,15 +47,18 @@ public class RunreportsApiResource {
     private final PlatformSecurityContext context;
     private final ToApiJsonSerializer<ReportData> toApiJsonSerializer;
     private final ReadReportingService readExtraDataAndReportingService;
-    private final GenericDataService genericDataService;
+    private final ReportRunService reportRunService;
+    private final ToApiJsonSerializer<ReportRunData> reportRunToApiJsonSerializer;
 
     @Autowired
     public RunreportsApiResource(final PlatformSecurityContext context, final ReadReportingService readExtraDataAndReportingService,
-            final GenericDataService genericDataService, final ToApiJsonSerializer<ReportData> toApiJsonSerializer) {
+            final ToApiJsonSerializer<ReportData> toApiJsonSerializer, final ReportRunService reportRunService,
+            final ToApiJsonSerializer<ReportRunData> reportRunToApiJsonSerializer) {
         this.context = context;
         this.readExtraDataAndReportingService = readExtraDataAndReportingService;
-        this.genericDataService = genericDataService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.reportRunService = reportRunService;
+        this.reportRunToApiJsonSerializer = reportRunToApiJsonSerializer;
     }
 
     @GET
@@ -68,6 +73,7 @@ public class RunreportsApiResource {
         final boolean exportCsv = ApiParameterHelper.exportCsv(uriInfo.getQueryParameters());
         final boolean parameterType = ApiParameterHelper.parameterType(uriInfo.getQueryParameters());
         final boolean exportPdf = ApiParameterHelper.exportPdf(uriInfo.getQueryParameters());
+        final boolean runAsync = ApiParameterHelper.runAsync(uriInfo.getQueryParameters());
 
         checkUserPermissionForReport(reportName, parameterType);
 
@@ -77,6 +83,11 @@ public class RunreportsApiResource {
             if (this.readExtraDataAndReportingService.getReportType(reportName).equalsIgnoreCase("Pentaho")) {
                 final Map<String, String> reportParams = getReportParams(queryParams, true);
                 final Locale locale = ApiParameterHelper.extractLocale(queryParams);
+                if (runAsync) {
+                    final ReportRunData run = this.reportRunService.submitPentahoReport(reportName, queryParams.getFirst("output-type"),
+                            reportParams, locale);
+                    return reportRunAccepted(run, prettyPrint);
+                }
                 return this.readExtraDataAndReportingService.processPentahoRequest(reportName, queryParams.getFirst("output-type"),
                         reportParams, locale);
             }
@@ -84,6 +95,18 @@ public class RunreportsApiResource {
             parameterTypeValue = "parameter";
         }
 
+        if (runAsync) {
+            final Map<String, String> reportParams = getReportParams(queryParams, false);
+            String outputType = "JSON";
+            if (exportPdf) {
+                outputType = "PDF";
+            } else if (exportCsv) {
+                outputType = "CSV";
+            }
+            final ReportRunData run = this.reportRunService.submitReport(reportName, parameterTypeValue, outputType, reportParams);
+            return reportRunAccepted(run, prettyPrint);
+        }
+
         // PDF format
 
         if (exportPdf) {
@@ -104,22 +127,20 @@ public class RunreportsApiResource {
         if (!exportCsv) {
             final Map<String, String> reportParams = getReportParams(queryParams, false);
 
-            final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
-                    parameterTypeValue, reportParams);
-
-            String json = "";
             final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(uriInfo.getQueryParameters());
             final boolean genericResultSet = ApiParameterHelper.genericResultSet(uriInfo.getQueryParameters());
-            if (genericResultSetIsPassed) {
-                if (genericResultSet) {
-                    json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
-                } else {
-                    json = this.genericDataService.generateJsonFromGenericResultsetData(result);
-                }
-            } else {
-                json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
+            if (genericResultSetIsPassed && !genericResultSet) {
+                // plain json rows are written straight from the database cursor
+                final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportJSON(reportName, parameterTypeValue,
+                        reportParams);
+                return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
             }
 
+            final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
+                    parameterTypeValue, reportParams);
+
+            final String json = this.toApiJsonSerializer.serializePretty(prettyPrint, result);
+
             return Response.ok().entity(json).type(MediaType.APPLICATION_JSON).build();
         }
 
@@ -132,6 +153,12 @@ public class RunreportsApiResource {
                 .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
     }
 
+    private Response reportRunAccepted(final ReportRunData run, final boolean prettyPrint) {
+        final String json = this.reportRunToApiJsonSerializer.serializePretty(prettyPrint, run);
+        return Response.status(Status.ACCEPTED).entity(json).type(MediaType.APPLICATION_JSON)
+                .header("Location", "reportruns/" + run.getId()).build();
+    }
+
     private void checkUserPermissionForReport(final String reportName, final boolean parameterType) {
 
         // Anyone can run a 'report' that is simply getting possible parameter
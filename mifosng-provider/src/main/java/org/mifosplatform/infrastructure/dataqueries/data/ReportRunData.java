@@ -0,0 +1,70 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.data;
+
+import java.util.Date;
+
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportRunStatus;
+
+/**
+ * Immutable data object representing an asynchronous run of a report.
+ */
+public class ReportRunData {
+
+    private final Long id;
+    private final String reportName;
+    private final String outputType;
+    private final ReportRunStatus status;
+    @SuppressWarnings("unused")
+    private final Date submittedOn;
+    @SuppressWarnings("unused")
+    private final Date startedOn;
+    @SuppressWarnings("unused")
+    private final Date completedOn;
+    private final String contentType;
+    private final Long fileSize;
+    @SuppressWarnings("unused")
+    private final String errorMessage;
+
+    public ReportRunData(final Long id, final String reportName, final String outputType, final ReportRunStatus status,
+            final Date submittedOn, final Date startedOn, final Date completedOn, final String contentType, final Long fileSize,
+            final String errorMessage) {
+        this.id = id;
+        this.reportName = reportName;
+        this.outputType = outputType;
+        this.status = status;
+        this.submittedOn = submittedOn;
+        this.startedOn = startedOn;
+        this.completedOn = completedOn;
+        this.contentType = contentType;
+        this.fileSize = fileSize;
+        this.errorMessage = errorMessage;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getReportName() {
+        return this.reportName;
+    }
+
+    public String getOutputType() {
+        return this.outputType;
+    }
+
+    public ReportRunStatus getStatus() {
+        return this.status;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public Long getFileSize() {
+        return this.fileSize;
+    }
+}
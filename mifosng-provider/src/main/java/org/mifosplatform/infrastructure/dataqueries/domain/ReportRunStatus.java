@@ -0,0 +1,18 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.domain;
+
+public enum ReportRunStatus {
+
+    QUEUED, //
+    RUNNING, //
+    COMPLETED, //
+    FAILED;
+
+    public boolean isCompleted() {
+        return this.equals(COMPLETED);
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.exception;
+
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+
+/**
+ * A {@link RuntimeException} thrown when a report run is not found for the
+ * current user.
+ */
+public class ReportRunNotFoundException extends AbstractPlatformResourceNotFoundException {
+
+    public ReportRunNotFoundException(final Long id) {
+        super("error.msg.report.run.id.invalid", "Report run with identifier " + id + " does not exist", id);
+    }
+}
@@ -20,6 +20,7 @@ import org.mifosplatform.infrastructure.dataqueries.exception.DatatableNotFoundE
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
@@ -172,7 +173,13 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     }
 
+    /**
+     * Column definitions and allowed code values of a datatable. Kept in the
+     * tenant's datatableColumnHeaders region and evicted whenever a datatable
+     * or a code is changed.
+     */
     @Override
+    @Cacheable(value = "datatableColumnHeaders", key = "#datatable")
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
 
         logger.debug("::3 Was inside the fill ResultSetColumnHeader");
@@ -231,10 +238,6 @@ public class GenericDataServiceImpl implements GenericDataService {
         return columnHeaders;
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from
-     * code/codevalue tables
-     */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
@@ -20,10 +21,14 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams);
 
+    StreamingOutput retrieveReportJSON(String name, String type, Map<String, String> extractedQueryParams);
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams);
 
     Response processPentahoRequest(String reportName, String outputType, Map<String, String> queryParams, Locale locale);
 
+    void writePentahoReport(String reportName, String outputType, Map<String, String> queryParams, Locale locale, OutputStream out);
+
     String retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams);
 
     String getReportType(String reportName);
@@ -5,16 +5,19 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -28,6 +31,7 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.commons.lang.StringUtils;
+import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
@@ -60,7 +64,10 @@ import org.pentaho.reporting.libraries.resourceloader.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
@@ -75,6 +82,8 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 
     private final static Logger logger = LoggerFactory.getLogger(ReadReportingServiceImpl.class);
 
+    private static final int REPORT_EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
     private final PlatformSecurityContext context;
@@ -97,82 +106,242 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams) {
 
+        final String sql = getSQLtoRun(name, type, queryParams);
+
         return new StreamingOutput() {
 
             @Override
-            public void write(final OutputStream out) {
-                try {
+            public void write(final OutputStream out) throws IOException {
+                streamReport(name, type, sql, out, new CsvReportRowWriter());
+            }
+        };
+
+    }
+
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams) {
+
+        final String sql = getSQLtoRun(name, type, queryParams);
+
+        return new StreamingOutput() {
 
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams);
-                    final StringBuffer sb = generateCsvFileBuffer(result);
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                streamReport(name, type, sql, out, new JsonReportRowWriter());
+            }
+        };
+    }
+
+    /**
+     * Runs the report sql on a forward-only, read-only cursor and hands each
+     * row to the writer as it is read, so neither the result set nor the
+     * rendered output is ever held in memory. If writing fails, e.g. because
+     * the client went away, the running statement is cancelled rather than
+     * drained and the write failure is rethrown.
+     */
+    private void streamReport(final String name, final String type, final String sql, final OutputStream out,
+            final ReportRowWriter rowWriter) throws IOException {
+
+        final long startTime = System.currentTimeMillis();
+        logger.info("STARTING REPORT EXPORT: " + name + "   Type: " + type);
 
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
+        final PreparedStatementCreator statementCreator = new PreparedStatementCreator() {
 
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection con) throws SQLException {
+                final PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // MySQL Connector/J only streams rows one at a time with this
+                // fetch size; any other value buffers the whole result
+                ps.setFetchSize(Integer.MIN_VALUE);
+                return ps;
+            }
+        };
+
+        final ResultSetExtractor<Long> extractor = new ResultSetExtractor<Long>() {
+
+            @Override
+            public Long extractData(final ResultSet rs) throws SQLException {
+                final ResultSetMetaData rsmd = rs.getMetaData();
+                final int columnCount = rsmd.getColumnCount();
+                final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnLabel(i + 1), rsmd.getColumnTypeName(i + 1)));
+                }
 
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
+                long rowCount = 0;
+                final String[] row = new String[columnCount];
+                try {
+                    final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"), REPORT_EXPORT_BUFFER_SIZE);
+                    rowWriter.writeHeader(writer, columnHeaders);
+                    while (rs.next()) {
+                        for (int i = 0; i < columnCount; i++) {
+                            row[i] = rs.getString(i + 1);
+                        }
+                        rowWriter.writeRow(writer, columnHeaders, row, rowCount == 0);
+                        rowCount++;
                     }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
-                } catch (final Exception e) {
-                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+                    rowWriter.writeFooter(writer);
+                    writer.flush();
+                } catch (final IOException e) {
+                    // client disconnected; stop the query on the server instead
+                    // of letting close() read the remaining rows off the wire
+                    rs.getStatement().cancel();
+                    throw new ReportExportAbortedException(rowCount, e);
                 }
+                return rowCount;
             }
         };
 
+        try {
+            final Long rowCount = this.jdbcTemplate.query(statementCreator, extractor);
+            final long elapsed = System.currentTimeMillis() - startTime;
+            logger.info("FINISHING REPORT EXPORT: " + name + " - " + type + "     Rows: " + rowCount + "     Elapsed Time: " + elapsed);
+        } catch (final ReportExportAbortedException e) {
+            logger.warn("ABORTED REPORT EXPORT: " + name + " - " + type + " after " + e.getRowCount() + " rows: "
+                    + e.getCause().getMessage());
+            throw e.getIOException();
+        } catch (final DataAccessException e) {
+            throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+        }
+    }
+
+    private static final class ReportExportAbortedException extends RuntimeException {
+
+        private final long rowCount;
+
+        public ReportExportAbortedException(final long rowCount, final IOException cause) {
+            super(cause);
+            this.rowCount = rowCount;
+        }
+
+        public long getRowCount() {
+            return this.rowCount;
+        }
+
+        public IOException getIOException() {
+            return (IOException) getCause();
+        }
+    }
+
+    private static interface ReportRowWriter {
+
+        void writeHeader(Writer writer, List<ResultsetColumnHeaderData> columnHeaders) throws IOException;
+
+        void writeRow(Writer writer, List<ResultsetColumnHeaderData> columnHeaders, String[] row, boolean firstRow) throws IOException;
+
+        void writeFooter(Writer writer) throws IOException;
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuffer writer = new StringBuffer();
+    private final class CsvReportRowWriter implements ReportRowWriter {
+
+        private static final String doubleQuote = "\"";
+        private static final String twoDoubleQuotes = doubleQuote + doubleQuote;
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
+        @Override
+        public void writeHeader(final Writer writer, final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            final int chSize = columnHeaders.size();
+            for (int i = 0; i < chSize; i++) {
+                writer.append('"').append(columnHeaders.get(i).getColumnName()).append('"');
+                if (i < (chSize - 1)) {
+                    writer.append(',');
+                }
             }
+            writer.append('\n');
         }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
+
+        @Override
+        public void writeRow(final Writer writer, final List<ResultsetColumnHeaderData> columnHeaders, final String[] row,
+                @SuppressWarnings("unused") final boolean firstRow) throws IOException {
+            for (int j = 0; j < row.length; j++) {
+                final String currColType = columnHeaders.get(j).getColumnType();
+                final String currVal = row[j];
                 if (currVal != null) {
                     if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
                             || currColType.equals("SMALLINT") || currColType.equals("INT")) {
                         writer.append(currVal);
                     } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
+                        writer.append('"').append(ReadReportingServiceImpl.this.genericDataService.replace(currVal, doubleQuote,
+                                twoDoubleQuotes)).append('"');
                     }
-
                 }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
+                if (j < (row.length - 1)) {
+                    writer.append(',');
                 }
             }
             writer.append('\n');
         }
 
-        return writer;
+        @Override
+        public void writeFooter(@SuppressWarnings("unused") final Writer writer) {
+            // nothing to close off in csv
+        }
+    }
+
+    /**
+     * Writes the same flat json array as
+     * {@link GenericDataService#generateJsonFromGenericResultsetData(GenericResultsetData)}
+     * one row at a time.
+     */
+    private final class JsonReportRowWriter implements ReportRowWriter {
+
+        private static final String doubleQuote = "\"";
+        private static final String slashDoubleQuote = "\\\"";
+
+        @Override
+        public void writeHeader(final Writer writer, @SuppressWarnings("unused") final List<ResultsetColumnHeaderData> columnHeaders)
+                throws IOException {
+            writer.append('[');
+        }
+
+        @Override
+        public void writeRow(final Writer writer, final List<ResultsetColumnHeaderData> columnHeaders, final String[] row,
+                final boolean firstRow) throws IOException {
+            if (!firstRow) {
+                writer.append(',');
+            }
+            writer.append("\n{");
+            for (int j = 0; j < row.length; j++) {
+                final ResultsetColumnHeaderData columnHeader = columnHeaders.get(j);
+                writer.append(doubleQuote).append(columnHeader.getColumnName()).append(doubleQuote).append(": ");
+
+                String currColType = columnHeader.getColumnDisplayType();
+                final String colType = columnHeader.getColumnType();
+                if (currColType == null && colType.equalsIgnoreCase("INT")) {
+                    currColType = "INTEGER";
+                }
+                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
+                    currColType = "VARCHAR";
+                }
+                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
+                    currColType = "DATE";
+                }
+                final String currVal = row[j];
+                if (currVal != null && currColType != null) {
+                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
+                        writer.append(currVal);
+                    } else if (currColType.equals("DATE")) {
+                        final LocalDate localDate = new LocalDate(currVal);
+                        writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
+                                + "]");
+                    } else {
+                        writer.append(doubleQuote)
+                                .append(ReadReportingServiceImpl.this.genericDataService.replace(currVal, doubleQuote, slashDoubleQuote))
+                                .append(doubleQuote);
+                    }
+                } else {
+                    writer.append("null");
+                }
+                if (j < (row.length - 1)) {
+                    writer.append(",\n");
+                }
+            }
+            writer.append('}');
+        }
+
+        @Override
+        public void writeFooter(final Writer writer) throws IOException {
+            writer.append("\n]");
+        }
     }
 
     @Override
@@ -243,14 +412,27 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     public Response processPentahoRequest(final String reportName, final String outputTypeParam, final Map<String, String> queryParams,
             final Locale locale) {
 
-        String outputType = "HTML";
-        if (StringUtils.isNotBlank(outputTypeParam)) {
-            outputType = outputTypeParam;
-        }
+        final String outputType = pentahoOutputTypeOf(outputTypeParam);
 
-        if (!(outputType.equalsIgnoreCase("HTML") || outputType.equalsIgnoreCase("PDF") || outputType.equalsIgnoreCase("XLS") || outputType
-                .equalsIgnoreCase("CSV"))) { throw new PlatformDataIntegrityException("error.msg.invalid.outputType",
-                "No matching Output Type: " + outputType); }
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writePentahoReport(reportName, outputType, queryParams, locale, baos);
+
+        if ("PDF".equalsIgnoreCase(outputType)) { return Response.ok().entity(baos.toByteArray()).type("application/pdf").build(); }
+
+        if ("XLS".equalsIgnoreCase(outputType)) { return Response.ok().entity(baos.toByteArray()).type("application/vnd.ms-excel")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build(); }
+
+        if ("CSV".equalsIgnoreCase(outputType)) { return Response.ok().entity(baos.toByteArray()).type("application/x-msdownload")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build(); }
+
+        return Response.ok().entity(baos.toByteArray()).type("text/html").build();
+    }
+
+    @Override
+    public void writePentahoReport(final String reportName, final String outputTypeParam, final Map<String, String> queryParams,
+            final Locale locale, final OutputStream out) {
+
+        final String outputType = pentahoOutputTypeOf(outputTypeParam);
 
         if (this.noPentaho) { throw new PlatformDataIntegrityException("error.msg.no.pentaho", "Pentaho is not enabled",
                 "Pentaho is not enabled"); }
@@ -273,28 +455,14 @@ public class ReadReportingServiceImpl implements ReadReportingService {
             }
             addParametersToReport(masterReport, queryParams);
 
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
             if ("PDF".equalsIgnoreCase(outputType)) {
-                PdfReportUtil.createPDF(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/pdf").build();
-            }
-
-            if ("XLS".equalsIgnoreCase(outputType)) {
-                ExcelReportUtil.createXLS(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/vnd.ms-excel")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build();
-            }
-
-            if ("CSV".equalsIgnoreCase(outputType)) {
-                CSVReportUtil.createCSV(masterReport, baos, "UTF-8");
-                return Response.ok().entity(baos.toByteArray()).type("application/x-msdownload")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
-            }
-
-            if ("HTML".equalsIgnoreCase(outputType)) {
-                HtmlReportUtil.createStreamHTML(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("text/html").build();
+                PdfReportUtil.createPDF(masterReport, out);
+            } else if ("XLS".equalsIgnoreCase(outputType)) {
+                ExcelReportUtil.createXLS(masterReport, out);
+            } else if ("CSV".equalsIgnoreCase(outputType)) {
+                CSVReportUtil.createCSV(masterReport, out, "UTF-8");
+            } else {
+                HtmlReportUtil.createStreamHTML(masterReport, out);
             }
         } catch (final ResourceException e) {
             throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
@@ -303,8 +471,18 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         } catch (final IOException e) {
             throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
         }
+    }
+
+    private static String pentahoOutputTypeOf(final String outputTypeParam) {
+        String outputType = "HTML";
+        if (StringUtils.isNotBlank(outputTypeParam)) {
+            outputType = outputTypeParam;
+        }
 
-        throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
+        if (!(outputType.equalsIgnoreCase("HTML") || outputType.equalsIgnoreCase("PDF") || outputType.equalsIgnoreCase("XLS") || outputType
+                .equalsIgnoreCase("CSV"))) { throw new PlatformDataIntegrityException("error.msg.invalid.outputType",
+                "No matching Output Type: " + outputType); }
+        return outputType;
     }
 
     private void addParametersToReport(final MasterReport report, final Map<String, String> queryParams) {
@@ -0,0 +1,47 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ReportRunData;
+
+/**
+ * Runs reports in the background and stores their output so that long
+ * reports do not hold a request thread.
+ */
+public interface ReportRunService {
+
+    /**
+     * Queues a run of a Pentaho report. If the current user already has an
+     * identical run queued or running, that run is returned instead.
+     */
+    ReportRunData submitPentahoReport(String reportName, String outputType, Map<String, String> queryParams, Locale locale);
+
+    /**
+     * Queues a run of a stretchy report producing CSV, JSON or PDF output. If
+     * the current user already has an identical run queued or running, that
+     * run is returned instead.
+     */
+    ReportRunData submitReport(String reportName, String parameterType, String outputType, Map<String, String> queryParams);
+
+    ReportRunData retrieveReportRun(Long runId);
+
+    /**
+     * @return the output of a completed run of the current user, spooled to
+     *         this node if it ran on another one
+     */
+    File retrieveReportRunOutput(Long runId);
+
+    /**
+     * Deletes the runs of the current tenant submitted longer ago than the
+     * retention period, together with their stored output and the output
+     * spooled on this node.
+     */
+    void deleteExpiredReportRuns();
+}
@@ -0,0 +1,543 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportRunData;
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportRunStatus;
+import org.mifosplatform.infrastructure.dataqueries.exception.ReportRunNotFoundException;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Every tenant gets its own small worker pool with a bounded queue, so a
+ * tenant submitting many long reports only delays its own runs and the number
+ * of database connections busy with reports stays bounded per tenant. Runs are
+ * tracked in <code>m_report_run</code>. Output is written to
+ * <code>reportRuns/tenantIdentifier/runId.outputType</code> under the mifosx
+ * base directory and then stored in <code>m_report_run_output</code>, so that
+ * behind a load balancer any node can serve it; a node that did not run the
+ * report copies it to its own spool directory on the first download.
+ *
+ * Identical runs (same tenant, user, report, output type, locale and
+ * parameters) are deduplicated while one is queued or running, on this node
+ * and, through a digest of the run recorded in <code>run_key</code>, on other
+ * nodes. Each run records the node it was queued on; runs a node still had
+ * queued or running when it stopped are marked as failed when it starts again.
+ * Runs and their output are kept for {@link #REPORT_RUN_RETENTION_DAYS} days.
+ */
+@Service
+@DependsOn("tenantDatabaseUpgradeService")
+public class ReportRunServiceImpl implements ReportRunService {
+
+    private final static Logger logger = LoggerFactory.getLogger(ReportRunServiceImpl.class);
+
+    private static final int REPORT_RUN_THREADS_PER_TENANT = 2;
+    private static final int REPORT_RUN_QUEUE_CAPACITY_PER_TENANT = 20;
+    private static final int REPORT_RUN_RETENTION_DAYS = 7;
+    private static final String REPORT_RUN_SPOOL_DIR = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "reportRuns";
+
+    private static final Map<String, String> contentTypes = new HashMap<>();
+    static {
+        contentTypes.put("PDF", "application/pdf");
+        contentTypes.put("XLS", "application/vnd.ms-excel");
+        contentTypes.put("CSV", "application/x-msdownload");
+        contentTypes.put("HTML", "text/html");
+        contentTypes.put("JSON", "application/json");
+    }
+
+    private final PlatformSecurityContext context;
+    private final ReadReportingService readReportingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantDetailsService tenantDetailsService;
+    private final String nodeName = localNodeName();
+    private final ConcurrentMap<String, ThreadPoolExecutor> tenantExecutors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> inFlightRuns = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReportRunServiceImpl(final PlatformSecurityContext context, final ReadReportingService readReportingService,
+            final RoutingDataSource dataSource, final TenantDetailsService tenantDetailsService) {
+        this(context, readReportingService, new JdbcTemplate(dataSource), tenantDetailsService);
+    }
+
+    ReportRunServiceImpl(final PlatformSecurityContext context, final ReadReportingService readReportingService,
+            final JdbcTemplate jdbcTemplate, final TenantDetailsService tenantDetailsService) {
+        this.context = context;
+        this.readReportingService = readReportingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    /**
+     * Runs are only tracked in memory while they are queued or running, so
+     * the ones this node had in flight when it stopped will never finish.
+     */
+    @PostConstruct
+    public void failInterruptedRuns() {
+        final List<MifosPlatformTenant> tenants = this.tenantDetailsService.findAllTenants();
+        for (final MifosPlatformTenant tenant : tenants) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                final String sql = "update m_report_run set status = ?, completed_on = ?, error_message = ? "
+                        + "where run_on_node = ? and status in (?, ?)";
+                final int interruptedRuns = this.jdbcTemplate.update(sql, ReportRunStatus.FAILED.name(), new Date(),
+                        "Interrupted by a restart of the server", this.nodeName, ReportRunStatus.QUEUED.name(),
+                        ReportRunStatus.RUNNING.name());
+                if (interruptedRuns > 0) {
+                    logger.info(tenant.getName() + ": marked " + interruptedRuns + " report runs interrupted by a restart as failed");
+                }
+            } catch (final RuntimeException e) {
+                logger.warn(tenant.getName() + ": failed to mark report runs interrupted by a restart as failed", e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (final ThreadPoolExecutor executor : this.tenantExecutors.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public ReportRunData submitPentahoReport(final String reportName, final String outputType, final Map<String, String> queryParams,
+            final Locale locale) {
+        final String pentahoOutputType = StringUtils.isBlank(outputType) ? "HTML" : outputType.toUpperCase();
+        return submit(new ReportRun(reportName, null, pentahoOutputType, queryParams, locale));
+    }
+
+    @Override
+    public ReportRunData submitReport(final String reportName, final String parameterType, final String outputType,
+            final Map<String, String> queryParams) {
+        return submit(new ReportRun(reportName, parameterType, outputType.toUpperCase(), queryParams, null));
+    }
+
+    private ReportRunData submit(final ReportRun run) {
+
+        if (!run.isSupportedOutputType()) { throw new GeneralPlatformDomainRuleException("error.msg.invalid.outputType",
+                "No matching Output Type: " + run.outputType, run.outputType); }
+
+        final AppUser currentUser = this.context.authenticatedUser();
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String runKey = runKeyOf(tenant, currentUser, run);
+
+        final SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+
+        Long inFlightRunId = this.inFlightRuns.get(runKey);
+        if (inFlightRunId != null) { return joinRun(tenant, inFlightRunId, run); }
+
+        // runs on other nodes are only seen once recorded, so two nodes
+        // receiving the same run at the same time may both run it
+        final String runKeyDigest = digestOf(runKey);
+        final List<Long> runIdsInFlight = this.jdbcTemplate.queryForList(
+                "select rr.id from m_report_run rr where rr.run_key = ? and rr.status in (?, ?) order by rr.id limit 1", Long.class,
+                runKeyDigest, ReportRunStatus.QUEUED.name(), ReportRunStatus.RUNNING.name());
+        if (!runIdsInFlight.isEmpty()) { return joinRun(tenant, runIdsInFlight.get(0), run); }
+
+        final Long runId = insertRun(run, runKeyDigest, currentUser);
+        inFlightRunId = this.inFlightRuns.putIfAbsent(runKey, runId);
+        if (inFlightRunId != null) {
+            // an identical run was submitted at the same time
+            this.jdbcTemplate.update("delete from m_report_run where id = ?", runId);
+            return joinRun(tenant, inFlightRunId, run);
+        }
+
+        try {
+            retrieveExecutorOf(tenant).execute(new ReportRunWorker(tenant, securityContext, runId, runKey, run));
+        } catch (final RejectedExecutionException e) {
+            this.inFlightRuns.remove(runKey, runId);
+            updateRunFinished(runId, ReportRunStatus.FAILED, null, null, "Too many report runs queued");
+            throw new PlatformServiceUnavailableException("error.msg.report.run.queue.full",
+                    "Too many report runs are queued, try again later");
+        }
+
+        logger.info(tenant.getName() + ": queued report run " + runId + " of " + run.reportName + " as " + run.outputType);
+        return retrieveReportRun(runId);
+    }
+
+    private ReportRunData joinRun(final MifosPlatformTenant tenant, final Long runId, final ReportRun run) {
+        logger.info(tenant.getName() + ": joining report run " + runId + " of " + run.reportName + " already in flight");
+        return retrieveReportRun(runId);
+    }
+
+    @Override
+    public ReportRunData retrieveReportRun(final Long runId) {
+        final AppUser currentUser = this.context.authenticatedUser();
+
+        final ReportRunMapper rm = new ReportRunMapper();
+        final String sql = "select " + rm.schema() + " where rr.id = ? and rr.submitted_by = ?";
+        final List<ReportRunData> runs = this.jdbcTemplate.query(sql, rm, new Object[] { runId, currentUser.getId() });
+        if (runs.isEmpty()) { throw new ReportRunNotFoundException(runId); }
+        return runs.get(0);
+    }
+
+    @Override
+    public File retrieveReportRunOutput(final Long runId) {
+        final ReportRunData run = retrieveReportRun(runId);
+        if (!run.getStatus().isCompleted()) { throw new GeneralPlatformDomainRuleException("error.msg.report.run.not.completed",
+                "Report run with identifier " + runId + " has not completed, its status is " + run.getStatus(), runId); }
+
+        final File output = spoolFileOf(ThreadLocalContextUtil.getTenant(), runId, run.getOutputType());
+        if (!output.exists() && !fetchOutput(runId, output)) { throw new ReportRunNotFoundException(runId); }
+        return output;
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.DELETE_EXPIRED_REPORT_RUNS)
+    public void deleteExpiredReportRuns() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final long expiredBefore = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(REPORT_RUN_RETENTION_DAYS);
+
+        // output is spooled on the nodes that ran or served the report, so
+        // every node cleans up its own directory
+        int deletedFiles = 0;
+        final File[] spoolFiles = new File(REPORT_RUN_SPOOL_DIR + File.separator + tenant.getTenantIdentifier()).listFiles();
+        if (spoolFiles != null) {
+            for (final File spoolFile : spoolFiles) {
+                if (spoolFile.isFile() && spoolFile.lastModified() < expiredBefore && spoolFile.delete()) {
+                    deletedFiles++;
+                }
+            }
+        }
+        this.jdbcTemplate.update("delete rro from m_report_run_output rro join m_report_run rr on rr.id = rro.report_run_id "
+                + "where rr.submitted_on < ?", new Date(expiredBefore));
+        final int deletedRuns = this.jdbcTemplate.update("delete from m_report_run where submitted_on < ?", new Date(expiredBefore));
+
+        logger.info(tenant.getName() + ": deleted " + deletedRuns + " expired report runs and " + deletedFiles + " spooled outputs");
+    }
+
+    private ThreadPoolExecutor retrieveExecutorOf(final MifosPlatformTenant tenant) {
+        ThreadPoolExecutor executor = this.tenantExecutors.get(tenant.getTenantIdentifier());
+        if (executor == null) {
+            final String threadNamePrefix = "report-run-" + tenant.getTenantIdentifier() + "-";
+            final ThreadPoolExecutor newExecutor = new ThreadPoolExecutor(REPORT_RUN_THREADS_PER_TENANT, REPORT_RUN_THREADS_PER_TENANT, 60,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(REPORT_RUN_QUEUE_CAPACITY_PER_TENANT), new ThreadFactory() {
+
+                        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                        @Override
+                        public Thread newThread(final Runnable runnable) {
+                            final Thread thread = new Thread(runnable, threadNamePrefix + this.threadNumber.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            // idle tenants do not keep threads around
+            newExecutor.allowCoreThreadTimeOut(true);
+            executor = this.tenantExecutors.putIfAbsent(tenant.getTenantIdentifier(), newExecutor);
+            if (executor == null) {
+                executor = newExecutor;
+            } else {
+                newExecutor.shutdown();
+            }
+        }
+        return executor;
+    }
+
+    private Long insertRun(final ReportRun run, final String runKeyDigest, final AppUser currentUser) {
+        final String sql = "insert into m_report_run (report_name, output_type, run_key, status, submitted_by, submitted_on, run_on_node) "
+                + "values (?, ?, ?, ?, ?, ?, ?)";
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection con) throws SQLException {
+                final PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, run.reportName);
+                ps.setString(2, run.outputType);
+                ps.setString(3, runKeyDigest);
+                ps.setString(4, ReportRunStatus.QUEUED.name());
+                ps.setLong(5, currentUser.getId());
+                ps.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+                ps.setString(7, ReportRunServiceImpl.this.nodeName);
+                return ps;
+            }
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private void updateRunStarted(final Long runId) {
+        this.jdbcTemplate.update("update m_report_run set status = ?, started_on = ? where id = ?", ReportRunStatus.RUNNING.name(),
+                new Date(), runId);
+    }
+
+    private void updateRunFinished(final Long runId, final ReportRunStatus status, final String contentType, final Long fileSize,
+            final String errorMessage) {
+        this.jdbcTemplate.update(
+                "update m_report_run set status = ?, completed_on = ?, content_type = ?, file_size = ?, error_message = ? where id = ?",
+                status.name(), new Date(), contentType, fileSize, StringUtils.abbreviate(errorMessage, 1000), runId);
+    }
+
+    private void writeOutput(final ReportRun run, final File output) throws IOException {
+        if (!run.isPentaho() && "PDF".equals(run.outputType)) {
+            // the stretchy pdf export always renders to a file of its own
+            final String pdfFileName = this.readReportingService.retrieveReportPDF(run.reportName, run.parameterType, run.queryParams);
+            Files.move(new File(pdfFileName).toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+
+        final OutputStream out = new BufferedOutputStream(new FileOutputStream(output));
+        try {
+            if (run.isPentaho()) {
+                this.readReportingService.writePentahoReport(run.reportName, run.outputType, run.queryParams, run.locale, out);
+            } else if ("CSV".equals(run.outputType)) {
+                this.readReportingService.retrieveReportCSV(run.reportName, run.parameterType, run.queryParams).write(out);
+            } else {
+                this.readReportingService.retrieveReportJSON(run.reportName, run.parameterType, run.queryParams).write(out);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void storeOutput(final Long runId, final File output) throws IOException {
+        final InputStream in = new BufferedInputStream(new FileInputStream(output));
+        try {
+            final String sql = "insert into m_report_run_output (report_run_id, content) values (?, ?)";
+            this.jdbcTemplate.update(sql, new PreparedStatementSetter() {
+
+                @Override
+                public void setValues(final PreparedStatement ps) throws SQLException {
+                    ps.setLong(1, runId);
+                    ps.setBinaryStream(2, in, output.length());
+                }
+            });
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Copies the stored output of a run that completed on another node to the
+     * spool directory of this node.
+     *
+     * @return false when no output is stored for the run
+     */
+    private boolean fetchOutput(final Long runId, final File output) {
+        return this.jdbcTemplate.query("select rro.content from m_report_run_output rro where rro.report_run_id = ?",
+                new Object[] { runId }, new ResultSetExtractor<Boolean>() {
+
+                    @Override
+                    public Boolean extractData(final ResultSet rs) throws SQLException {
+                        if (!rs.next()) { return false; }
+                        try {
+                            output.getParentFile().mkdirs();
+                            // concurrent downloads must not serve a partly copied file
+                            final File partialOutput = File.createTempFile(output.getName(), ".part", output.getParentFile());
+                            final InputStream in = rs.getBinaryStream(1);
+                            try {
+                                Files.copy(in, partialOutput.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                            } finally {
+                                in.close();
+                            }
+                            Files.move(partialOutput.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                        } catch (final IOException e) {
+                            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+                        }
+                        return true;
+                    }
+                });
+    }
+
+    private static File spoolFileOf(final MifosPlatformTenant tenant, final Long runId, final String outputType) {
+        return new File(REPORT_RUN_SPOOL_DIR + File.separator + tenant.getTenantIdentifier() + File.separator + runId + "."
+                + outputType.toLowerCase());
+    }
+
+    private static String localNodeName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (final UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    private static String runKeyOf(final MifosPlatformTenant tenant, final AppUser currentUser, final ReportRun run) {
+        // report sql can depend on the user's office hierarchy and id
+        return tenant.getTenantIdentifier() + "|" + currentUser.getId() + "|" + run.reportName + "|" + run.parameterType + "|"
+                + run.outputType + "|" + run.locale + "|" + new TreeMap<>(run.queryParams);
+    }
+
+    private static String digestOf(final String runKey) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(runKey.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ReportRun {
+
+        private final String reportName;
+        private final String parameterType;
+        private final String outputType;
+        private final Map<String, String> queryParams;
+        private final Locale locale;
+
+        public ReportRun(final String reportName, final String parameterType, final String outputType,
+                final Map<String, String> queryParams, final Locale locale) {
+            this.reportName = reportName;
+            this.parameterType = parameterType;
+            this.outputType = outputType;
+            this.queryParams = queryParams;
+            this.locale = locale;
+        }
+
+        public boolean isPentaho() {
+            return this.parameterType == null;
+        }
+
+        public boolean isSupportedOutputType() {
+            if (isPentaho()) { return "PDF".equals(this.outputType) || "XLS".equals(this.outputType) || "CSV".equals(this.outputType)
+                    || "HTML".equals(this.outputType); }
+            return "CSV".equals(this.outputType) || "JSON".equals(this.outputType) || "PDF".equals(this.outputType);
+        }
+    }
+
+    private final class ReportRunWorker implements Runnable {
+
+        private final MifosPlatformTenant tenant;
+        private final SecurityContext securityContext;
+        private final Long runId;
+        private final String runKey;
+        private final ReportRun run;
+
+        public ReportRunWorker(final MifosPlatformTenant tenant, final SecurityContext securityContext, final Long runId,
+                final String runKey, final ReportRun run) {
+            this.tenant = tenant;
+            this.securityContext = securityContext;
+            this.runId = runId;
+            this.runKey = runKey;
+            this.run = run;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            SecurityContextHolder.setContext(this.securityContext);
+            final File output = spoolFileOf(this.tenant, this.runId, this.run.outputType);
+            try {
+                final long startTime = System.currentTimeMillis();
+                updateRunStarted(this.runId);
+
+                output.getParentFile().mkdirs();
+                writeOutput(this.run, output);
+                storeOutput(this.runId, output);
+
+                updateRunFinished(this.runId, ReportRunStatus.COMPLETED, contentTypes.get(this.run.outputType), output.length(), null);
+                logger.info(this.tenant.getName() + ": report run " + this.runId + " of " + this.run.reportName + " completed with "
+                        + output.length() + " bytes in " + (System.currentTimeMillis() - startTime) + " ms");
+            } catch (final Exception e) {
+                logger.error(this.tenant.getName() + ": report run " + this.runId + " of " + this.run.reportName + " failed", e);
+                output.delete();
+                final String message = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+                updateRunFinished(this.runId, ReportRunStatus.FAILED, null, null, message);
+            } finally {
+                ReportRunServiceImpl.this.inFlightRuns.remove(this.runKey, this.runId);
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    private static final class ReportRunMapper implements RowMapper<ReportRunData> {
+
+        public String schema() {
+            return " rr.id as id, rr.report_name as reportName, rr.output_type as outputType, rr.status as status, "
+                    + "rr.submitted_on as submittedOn, rr.started_on as startedOn, rr.completed_on as completedOn, "
+                    + "rr.content_type as contentType, rr.file_size as fileSize, rr.error_message as errorMessage from m_report_run rr";
+        }
+
+        @Override
+        public ReportRunData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
+            final String reportName = rs.getString("reportName");
+            final String outputType = rs.getString("outputType");
+            final ReportRunStatus status = ReportRunStatus.valueOf(rs.getString("status"));
+            final Date submittedOn = rs.getTimestamp("submittedOn");
+            final Date startedOn = rs.getTimestamp("startedOn");
+            final Date completedOn = rs.getTimestamp("completedOn");
+            final String contentType = rs.getString("contentType");
+            final Long fileSize = JdbcSupport.getLong(rs, "fileSize");
+            final String errorMessage = rs.getString("errorMessage");
+
+            return new ReportRunData(id, reportName, outputType, status, submittedOn, startedOn, completedOn, contentType, fileSize,
+                    errorMessage);
+        }
+    }
+}
@@ -30,8 +30,15 @@ public class JobDetailHistoryData {
     @SuppressWarnings("unused")
     private final String jobRunErrorLog;
 
+    @SuppressWarnings("unused")
+    private final Long rowsProcessed;
+
+    @SuppressWarnings("unused")
+    private final Long elapsedTimeMillis;
+
     public JobDetailHistoryData(final Long version, final Date jobRunStartTime, final Date jobRunEndTime, final String status,
-            final String jobRunErrorMessage, final String triggerType, final String jobRunErrorLog) {
+            final String jobRunErrorMessage, final String triggerType, final String jobRunErrorLog, final Long rowsProcessed,
+            final Long elapsedTimeMillis) {
         this.version = version;
         this.jobRunStartTime = jobRunStartTime;
         this.jobRunEndTime = jobRunEndTime;
@@ -39,5 +46,7 @@ public class JobDetailHistoryData {
         this.jobRunErrorMessage = jobRunErrorMessage;
         this.triggerType = triggerType;
         this.jobRunErrorLog = jobRunErrorLog;
+        this.rowsProcessed = rowsProcessed;
+        this.elapsedTimeMillis = elapsedTimeMillis;
     }
 }
\ No newline at end of file
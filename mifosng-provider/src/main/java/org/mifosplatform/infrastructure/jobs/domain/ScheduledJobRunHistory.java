@@ -48,12 +48,19 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
     @Column(name = "error_log")
     private String errorLog;
 
+    @Column(name = "rows_processed")
+    private Long rowsProcessed;
+
+    @Column(name = "elapsed_time_millis")
+    private Long elapsedTimeMillis;
+
     public ScheduledJobRunHistory() {
 
     }
 
     public ScheduledJobRunHistory(final ScheduledJobDetail scheduledJobDetail, final Long version, final Date startTime,
-            final Date endTime, final String status, final String errorMessage, final String triggerType, final String errorLog) {
+            final Date endTime, final String status, final String errorMessage, final String triggerType, final String errorLog,
+            final Long rowsProcessed, final Long elapsedTimeMillis) {
         this.scheduledJobDetail = scheduledJobDetail;
         this.version = version;
         this.startTime = startTime;
@@ -62,6 +69,8 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
         this.errorMessage = errorMessage;
         this.triggerType = triggerType;
         this.errorLog = errorLog;
+        this.rowsProcessed = rowsProcessed;
+        this.elapsedTimeMillis = elapsedTimeMillis;
     }
 
 }
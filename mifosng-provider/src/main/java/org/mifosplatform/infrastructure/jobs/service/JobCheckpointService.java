@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.Date;
+
+/**
+ * Keeps track of how far a batch job has progressed so that the next run (or
+ * a restarted run) can continue from there instead of starting over.
+ */
+public interface JobCheckpointService {
+
+    Date retrieveCheckpointTime(JobName jobName, String checkpointKey);
+
+    Long retrieveLastProcessedId(JobName jobName, String checkpointKey);
+
+    void updateCheckpointTime(JobName jobName, String checkpointKey, Date checkpointTime);
+
+    void updateLastProcessedId(JobName jobName, String checkpointKey, Long lastProcessedId);
+
+    void clearCheckpoint(JobName jobName, String checkpointKey);
+}
@@ -0,0 +1,66 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checkpoints are written with plain JDBC outside of any surrounding business
+ * transaction boundary so that progress made by a chunk is visible as soon as
+ * the chunk commits.
+ */
+@Service
+public class JobCheckpointServiceImpl implements JobCheckpointService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobCheckpointServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Date retrieveCheckpointTime(final JobName jobName, final String checkpointKey) {
+        final String sql = "select jc.checkpoint_time from job_checkpoint jc where jc.job_name = ? and jc.checkpoint_key = ?";
+        final List<Date> checkpoints = this.jdbcTemplate.queryForList(sql, Date.class, jobName.toString(), checkpointKey);
+        if (checkpoints.isEmpty()) { return null; }
+        return checkpoints.get(0);
+    }
+
+    @Override
+    public Long retrieveLastProcessedId(final JobName jobName, final String checkpointKey) {
+        final String sql = "select jc.last_processed_id from job_checkpoint jc where jc.job_name = ? and jc.checkpoint_key = ?";
+        final List<Long> checkpoints = this.jdbcTemplate.queryForList(sql, Long.class, jobName.toString(), checkpointKey);
+        if (checkpoints.isEmpty()) { return null; }
+        return checkpoints.get(0);
+    }
+
+    @Override
+    public void updateCheckpointTime(final JobName jobName, final String checkpointKey, final Date checkpointTime) {
+        final String sql = "insert into job_checkpoint (job_name, checkpoint_key, checkpoint_time) values (?, ?, ?) "
+                + "on duplicate key update checkpoint_time = values(checkpoint_time)";
+        this.jdbcTemplate.update(sql, jobName.toString(), checkpointKey, checkpointTime);
+    }
+
+    @Override
+    public void updateLastProcessedId(final JobName jobName, final String checkpointKey, final Long lastProcessedId) {
+        final String sql = "insert into job_checkpoint (job_name, checkpoint_key, last_processed_id) values (?, ?, ?) "
+                + "on duplicate key update last_processed_id = values(last_processed_id)";
+        this.jdbcTemplate.update(sql, jobName.toString(), checkpointKey, lastProcessedId);
+    }
+
+    @Override
+    public void clearCheckpoint(final JobName jobName, final String checkpointKey) {
+        this.jdbcTemplate.update("delete from job_checkpoint where job_name = ? and checkpoint_key = ?", jobName.toString(),
+                checkpointKey);
+    }
+}
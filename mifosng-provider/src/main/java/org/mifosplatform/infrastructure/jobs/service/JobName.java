@@ -23,7 +23,9 @@ public enum JobName {
     UPDATE_DEPOSITS_ACCOUNT_MATURITY_DETAILS("Update Deposit Accounts Maturity details"),
     TRANSFER_INTEREST_TO_SAVINGS("Transfer Interest To Savings"),
     ADD_PERIODIC_ACCRUAL_ENTRIES("Add Periodic Accrual Transactions"),
-    RECALCULATE_INTEREST_FOR_LOAN("Recalculate Interest For Loans");
+    RECALCULATE_INTEREST_FOR_LOAN("Recalculate Interest For Loans"),
+    TRANSFER_AUDIT_ENTRIES("Transfer Audit Entries"),
+    DELETE_EXPIRED_REPORT_RUNS("Delete Expired Report Runs");
 
     private final String name;
 
@@ -0,0 +1,17 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+/**
+ * Unit of work of a partitioned batch job, invoked once per work item (for
+ * example a loan or savings account id) on one of the
+ * {@link PartitionedJobExecutor} worker threads with the tenant of the job
+ * already set.
+ */
+public interface JobPartitionTask<T> {
+
+    void process(T workItem);
+}
@@ -0,0 +1,29 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.List;
+
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+
+/**
+ * Runs the work set of a batch job as partitions on a bounded worker pool
+ * shared by all tenants.
+ */
+public interface PartitionedJobExecutor {
+
+    /**
+     * Splits the work items into partitions of the given size and processes
+     * them concurrently, limited by the per-tenant partition concurrency.
+     * Work items that fail with a transient error are retried within their
+     * partition; items that already succeeded are not processed again.
+     * 
+     * @return the number of work items processed successfully
+     * @throws JobExecutionException
+     *             listing the failed work items per partition, if any
+     */
+    <T> long execute(JobName jobName, List<T> workItems, int partitionSize, JobPartitionTask<T> task) throws JobExecutionException;
+}
@@ -0,0 +1,230 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.mifosplatform.infrastructure.core.data.ApiParameterError;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Every tenant has its own quartz scheduler, so partitions are run on one
+ * worker pool shared across all schedulers to keep the total number of busy
+ * database connections bounded. The job thread acquires a per-tenant permit
+ * before handing a partition to the pool, which stops one large tenant from
+ * occupying all of the workers.
+ */
+@Service
+public class PartitionedJobExecutorImpl implements PartitionedJobExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(PartitionedJobExecutorImpl.class);
+
+    private final ConfigurationDomainService configurationDomainService;
+    private final ExecutorService workerPool;
+    private final ConcurrentMap<String, TenantPartitionPermits> tenantPermits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PartitionedJobExecutorImpl(final ConfigurationDomainService configurationDomainService) {
+        this.configurationDomainService = configurationDomainService;
+        this.workerPool = Executors.newFixedThreadPool(SchedulerServiceConstants.PARTITION_WORKER_THREAD_COUNT, new ThreadFactory() {
+
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "partitioned-job-worker-" + this.threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.workerPool.shutdownNow();
+    }
+
+    @Override
+    public <T> long execute(final JobName jobName, final List<T> workItems, final int partitionSize, final JobPartitionTask<T> task)
+            throws JobExecutionException {
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Semaphore permits = retrievePermitsOf(tenant);
+
+        final List<Future<PartitionOutcome>> outcomes = new ArrayList<>();
+        int partitionNumber = 1;
+        for (int fromIndex = 0; fromIndex < workItems.size(); fromIndex += partitionSize) {
+            final List<T> partition = workItems.subList(fromIndex, Math.min(fromIndex + partitionSize, workItems.size()));
+            try {
+                permits.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JobExecutionException(jobName + ": interrupted while submitting partition " + partitionNumber);
+            }
+            try {
+                outcomes.add(this.workerPool.submit(new PartitionWorker<>(tenant, permits, jobName, partitionNumber, partition, task)));
+            } catch (final RejectedExecutionException e) {
+                permits.release();
+                throw new JobExecutionException(jobName + ": partition " + partitionNumber + " rejected by worker pool");
+            }
+            partitionNumber++;
+        }
+
+        long processed = 0;
+        final StringBuilder errorMsg = new StringBuilder();
+        for (final Future<PartitionOutcome> future : outcomes) {
+            try {
+                final PartitionOutcome outcome = future.get();
+                processed += outcome.processed;
+                errorMsg.append(outcome.errors);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JobExecutionException(jobName + ": interrupted while waiting for partitions to complete");
+            } catch (final ExecutionException e) {
+                errorMsg.append(jobName).append(": partition failed with message ").append(e.getCause().getMessage()).append("\n");
+            }
+        }
+
+        logger.info(tenant.getName() + ": " + jobName + " processed " + processed + " of " + workItems.size() + " items in "
+                + outcomes.size() + " partitions");
+
+        if (errorMsg.length() > 0) { throw new JobExecutionException(errorMsg.toString()); }
+
+        return processed;
+    }
+
+    private Semaphore retrievePermitsOf(final MifosPlatformTenant tenant) {
+        final Long configuredConcurrency = this.configurationDomainService.retrieveJobPartitionConcurrencyPerTenant();
+        final int concurrency = configuredConcurrency == null || configuredConcurrency < 1 ? 1 : configuredConcurrency.intValue();
+
+        TenantPartitionPermits permits = this.tenantPermits.get(tenant.getTenantIdentifier());
+        if (permits == null || permits.concurrency != concurrency) {
+            // partitions still running release into the permits they took
+            permits = new TenantPartitionPermits(concurrency);
+            this.tenantPermits.put(tenant.getTenantIdentifier(), permits);
+        }
+        return permits.semaphore;
+    }
+
+    private static String errorMessageOf(final Exception e) {
+        if (e instanceof PlatformApiDataValidationException) {
+            final StringBuilder message = new StringBuilder();
+            for (final ApiParameterError error : ((PlatformApiDataValidationException) e).getErrors()) {
+                message.append(error.getDeveloperMessage()).append(' ');
+            }
+            return message.toString().trim();
+        } else if (e instanceof AbstractPlatformDomainRuleException) {
+            return ((AbstractPlatformDomainRuleException) e).getDefaultUserMessage();
+        } else if (e instanceof AbstractPlatformResourceNotFoundException) { return ((AbstractPlatformResourceNotFoundException) e)
+                .getDefaultUserMessage(); }
+        final Throwable realCause = e.getCause() != null ? e.getCause() : e;
+        return realCause.getMessage();
+    }
+
+    private static boolean isRetryable(final Exception e) {
+        return !(e instanceof PlatformApiDataValidationException || e instanceof AbstractPlatformDomainRuleException || e instanceof AbstractPlatformResourceNotFoundException);
+    }
+
+    private static final class TenantPartitionPermits {
+
+        private final int concurrency;
+        private final Semaphore semaphore;
+
+        public TenantPartitionPermits(final int concurrency) {
+            this.concurrency = concurrency;
+            this.semaphore = new Semaphore(concurrency);
+        }
+    }
+
+    private static final class PartitionOutcome {
+
+        private final long processed;
+        private final String errors;
+
+        public PartitionOutcome(final long processed, final String errors) {
+            this.processed = processed;
+            this.errors = errors;
+        }
+    }
+
+    private static final class PartitionWorker<T> implements Callable<PartitionOutcome> {
+
+        private final MifosPlatformTenant tenant;
+        private final Semaphore permits;
+        private final JobName jobName;
+        private final int partitionNumber;
+        private final List<T> partition;
+        private final JobPartitionTask<T> task;
+
+        public PartitionWorker(final MifosPlatformTenant tenant, final Semaphore permits, final JobName jobName,
+                final int partitionNumber, final List<T> partition, final JobPartitionTask<T> task) {
+            this.tenant = tenant;
+            this.permits = permits;
+            this.jobName = jobName;
+            this.partitionNumber = partitionNumber;
+            this.partition = partition;
+            this.task = task;
+        }
+
+        @Override
+        public PartitionOutcome call() {
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            try {
+                long processed = 0;
+                final StringBuilder errors = new StringBuilder();
+                List<T> pending = this.partition;
+                for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                    final List<T> retries = new ArrayList<>();
+                    for (final T workItem : pending) {
+                        try {
+                            this.task.process(workItem);
+                            processed++;
+                        } catch (final Exception e) {
+                            if (isRetryable(e) && attempt < SchedulerServiceConstants.PARTITION_MAX_ATTEMPTS) {
+                                retries.add(workItem);
+                            } else {
+                                final String message = errorMessageOf(e);
+                                logger.error(this.tenant.getName() + ": " + this.jobName + " failed in partition " + this.partitionNumber
+                                        + " for " + workItem + " after " + attempt + " attempt(s) with message " + message);
+                                errors.append(this.jobName).append(" failed in partition ").append(this.partitionNumber).append(" for ")
+                                        .append(workItem).append(" with message ").append(message).append("\n");
+                            }
+                        }
+                    }
+                    pending = retries;
+                }
+                return new PartitionOutcome(processed, errors.toString());
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+                this.permits.release();
+            }
+        }
+    }
+}
@@ -91,8 +91,14 @@ public class SchedulerJobListener implements JobListener {
         scheduledJobDetails.updatePreviousRunStartTime(context.getFireTime());
         scheduledJobDetails.updateCurrentlyRunningStatus(false);
 
+        Long rowsProcessed = null;
+        if (context.getResult() instanceof Number) {
+            rowsProcessed = ((Number) context.getResult()).longValue();
+        }
+        final Long elapsedTimeMillis = context.getJobRunTime() >= 0 ? Long.valueOf(context.getJobRunTime()) : null;
+
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
-                new Date(), status, errorMessage, triggerType, errorLog);
+                new Date(), status, errorMessage, triggerType, errorLog, rowsProcessed, elapsedTimeMillis);
         // scheduledJobDetails.addRunHistory(runHistory);
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
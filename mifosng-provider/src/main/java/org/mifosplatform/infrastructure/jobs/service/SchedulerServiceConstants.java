@@ -24,5 +24,8 @@ public interface SchedulerServiceConstants {
     public static final int DEFAULT_THREAD_COUNT = 7;
     public static final int GROUP_THREAD_COUNT = 1;
     public static final String SCHEDULER_NAME = "schedulerName";
+    public static final int PARTITION_WORKER_THREAD_COUNT = 16;
+    public static final int PARTITION_MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_PARTITION_SIZE = 100;
 
 }
\ No newline at end of file
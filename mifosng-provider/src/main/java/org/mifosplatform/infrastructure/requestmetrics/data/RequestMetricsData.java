@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.requestmetrics.data;
+
+import java.util.Map;
+
+/**
+ * Immutable data object representing the aggregated latency and throughput of
+ * one endpoint of a tenant.
+ */
+public class RequestMetricsData {
+
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final String method;
+    @SuppressWarnings("unused")
+    private final String endpoint;
+    @SuppressWarnings("unused")
+    private final long requestCount;
+    @SuppressWarnings("unused")
+    private final double requestsPerMinute;
+    @SuppressWarnings("unused")
+    private final long meanMillis;
+    @SuppressWarnings("unused")
+    private final long maxMillis;
+    @SuppressWarnings("unused")
+    private final long p50Millis;
+    @SuppressWarnings("unused")
+    private final long p95Millis;
+    @SuppressWarnings("unused")
+    private final long p99Millis;
+    @SuppressWarnings("unused")
+    private final Map<String, Long> latencyHistogram;
+
+    public static RequestMetricsData instance(final String tenantIdentifier, final String method, final String endpoint,
+            final long requestCount, final double requestsPerMinute, final long meanMillis, final long maxMillis, final long p50Millis,
+            final long p95Millis, final long p99Millis, final Map<String, Long> latencyHistogram) {
+        return new RequestMetricsData(tenantIdentifier, method, endpoint, requestCount, requestsPerMinute, meanMillis, maxMillis,
+                p50Millis, p95Millis, p99Millis, latencyHistogram);
+    }
+
+    private RequestMetricsData(final String tenantIdentifier, final String method, final String endpoint, final long requestCount,
+            final double requestsPerMinute, final long meanMillis, final long maxMillis, final long p50Millis, final long p95Millis,
+            final long p99Millis, final Map<String, Long> latencyHistogram) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.requestCount = requestCount;
+        this.requestsPerMinute = requestsPerMinute;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.latencyHistogram = latencyHistogram;
+    }
+}
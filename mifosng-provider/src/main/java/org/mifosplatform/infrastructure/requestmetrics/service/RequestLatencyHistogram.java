@@ -0,0 +1,97 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.requestmetrics.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.mifosplatform.infrastructure.requestmetrics.data.RequestMetricsData;
+
+/**
+ * Latency histogram of one endpoint of a tenant with fixed bucket bounds.
+ * Percentiles are reported as the upper bound of the bucket they fall in.
+ * 
+ * Only the metrics consumer thread records into a histogram, readers take a
+ * consistent snapshot through {@link #toData()}.
+ */
+final class RequestLatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MILLIS = { 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, Long.MAX_VALUE };
+
+    private final String tenantIdentifier;
+    private final String method;
+    private final String endpoint;
+    private final long[] bucketCounts = new long[BUCKET_UPPER_BOUNDS_MILLIS.length];
+    private long requestCount;
+    private long totalMillis;
+    private long maxMillis;
+    private long firstRequestAt;
+    private long lastRequestAt;
+
+    RequestLatencyHistogram(final String tenantIdentifier, final String method, final String endpoint) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.method = method;
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(final long completedAt, final long elapsedMillis) {
+        int bucket = 0;
+        while (elapsedMillis > BUCKET_UPPER_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        this.bucketCounts[bucket]++;
+        if (this.requestCount == 0) {
+            this.firstRequestAt = completedAt;
+        }
+        this.requestCount++;
+        this.totalMillis += elapsedMillis;
+        this.maxMillis = Math.max(this.maxMillis, elapsedMillis);
+        this.lastRequestAt = Math.max(this.lastRequestAt, completedAt);
+    }
+
+    synchronized void merge(final RequestLatencyHistogram other) {
+        for (int bucket = 0; bucket < this.bucketCounts.length; bucket++) {
+            this.bucketCounts[bucket] += other.bucketCounts[bucket];
+        }
+        if (this.requestCount == 0) {
+            this.firstRequestAt = other.firstRequestAt;
+        }
+        this.requestCount += other.requestCount;
+        this.totalMillis += other.totalMillis;
+        this.maxMillis = Math.max(this.maxMillis, other.maxMillis);
+        this.lastRequestAt = Math.max(this.lastRequestAt, other.lastRequestAt);
+    }
+
+    String tenantIdentifier() {
+        return this.tenantIdentifier;
+    }
+
+    synchronized RequestMetricsData toData() {
+        final Map<String, Long> latencyHistogram = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < this.bucketCounts.length; bucket++) {
+            final String label = BUCKET_UPPER_BOUNDS_MILLIS[bucket] == Long.MAX_VALUE ? "+Inf" : "<="
+                    + BUCKET_UPPER_BOUNDS_MILLIS[bucket];
+            latencyHistogram.put(label, this.bucketCounts[bucket]);
+        }
+
+        final long meanMillis = this.requestCount == 0 ? 0 : this.totalMillis / this.requestCount;
+        final long windowMillis = this.lastRequestAt - this.firstRequestAt;
+        final double requestsPerMinute = windowMillis <= 0 ? this.requestCount : this.requestCount * 60000d / windowMillis;
+
+        return RequestMetricsData.instance(this.tenantIdentifier, this.method, this.endpoint, this.requestCount, requestsPerMinute,
+                meanMillis, this.maxMillis, percentile(50), percentile(95), percentile(99), latencyHistogram);
+    }
+
+    private long percentile(final int percentile) {
+        final long rank = (long) Math.ceil(this.requestCount * percentile / 100d);
+        long seen = 0;
+        for (int bucket = 0; bucket < this.bucketCounts.length; bucket++) {
+            seen += this.bucketCounts[bucket];
+            if (seen >= rank && seen > 0) { return Math.min(BUCKET_UPPER_BOUNDS_MILLIS[bucket], this.maxMillis); }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.requestmetrics.service;
+
+/**
+ * The fixed layout record handed off by a request thread once the request is
+ * complete.
+ */
+final class RequestMetricsRecord {
+
+    final String tenantIdentifier;
+    final String method;
+    final String endpoint;
+    final long completedAt;
+    final long elapsedMillis;
+
+    RequestMetricsRecord(final String tenantIdentifier, final String method, final String endpoint, final long completedAt,
+            final long elapsedMillis) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.completedAt = completedAt;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
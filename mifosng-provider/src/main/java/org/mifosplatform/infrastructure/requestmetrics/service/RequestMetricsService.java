@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.requestmetrics.service;
+
+import java.util.Collection;
+
+import org.mifosplatform.infrastructure.requestmetrics.data.RequestMetricsData;
+
+public interface RequestMetricsService {
+
+    /**
+     * Hands the timing of a completed request off to the metrics consumer. Never
+     * blocks: when the consumer falls behind the record is dropped and counted.
+     * 
+     * @param resourceTemplate
+     *            path template of the resource method that served the
+     *            request, or <code>null</code> when no resource matched
+     */
+    void record(String tenantIdentifier, String method, String resourceTemplate, long elapsedMillis);
+
+    Collection<RequestMetricsData> retrieveAll(String tenantIdentifier);
+}
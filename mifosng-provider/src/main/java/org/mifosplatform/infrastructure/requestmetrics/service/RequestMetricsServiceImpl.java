@@ -0,0 +1,170 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.requestmetrics.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.requestmetrics.data.RequestMetricsData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Request threads only offer a {@link RequestMetricsRecord} to a bounded
+ * queue. A single background consumer drains the queue in batches, keeps a
+ * latency histogram per tenant and endpoint, and logs the histograms of each
+ * interval as one batch.
+ * 
+ * Endpoints are resource templates, so their number is bounded by the API.
+ * Still, at most {@link #MAX_HISTOGRAMS} histograms are kept; requests of any
+ * further tenant and endpoint are counted under {@link #OTHER_ENDPOINT}.
+ */
+@Service
+public class RequestMetricsServiceImpl implements RequestMetricsService {
+
+    private final static Logger logger = LoggerFactory.getLogger(RequestMetricsServiceImpl.class);
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int DRAIN_BATCH_SIZE = 1024;
+    private static final long LOG_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int MAX_HISTOGRAMS = 2000;
+    private static final String UNMATCHED_ENDPOINT = "{unmatched}";
+    private static final String OTHER_ENDPOINT = "{other}";
+
+    private final ToApiJsonSerializer<RequestMetricsData> toApiJsonSerializer;
+    private final BlockingQueue<RequestMetricsRecord> records = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final ConcurrentMap<String, RequestLatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Thread consumer;
+
+    @Autowired
+    public RequestMetricsServiceImpl(final ToApiJsonSerializer<RequestMetricsData> toApiJsonSerializer) {
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.consumer = new Thread(new RequestMetricsConsumer(), "request-metrics-consumer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.consumer.interrupt();
+    }
+
+    @Override
+    public void record(final String tenantIdentifier, final String method, final String resourceTemplate, final long elapsedMillis) {
+        final String endpoint = resourceTemplate == null ? UNMATCHED_ENDPOINT : resourceTemplate;
+        final RequestMetricsRecord record = new RequestMetricsRecord(tenantIdentifier, method, endpoint, System.currentTimeMillis(),
+                elapsedMillis);
+        if (!this.records.offer(record)) {
+            this.droppedRecords.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Collection<RequestMetricsData> retrieveAll(final String tenantIdentifier) {
+        final List<RequestMetricsData> metrics = new ArrayList<>();
+        for (final RequestLatencyHistogram histogram : this.histograms.values()) {
+            if (histogram.tenantIdentifier().equals(tenantIdentifier)) {
+                metrics.add(histogram.toData());
+            }
+        }
+        return metrics;
+    }
+
+    private static String histogramKey(final String tenantIdentifier, final String method, final String endpoint) {
+        return tenantIdentifier + " " + method + " " + endpoint;
+    }
+
+    private final class RequestMetricsConsumer implements Runnable {
+
+        private final List<RequestMetricsRecord> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        private final Set<String> histogramKeys = new HashSet<>();
+        private Map<String, RequestLatencyHistogram> interval = new HashMap<>();
+        private long intervalStartedAt = System.currentTimeMillis();
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    final RequestMetricsRecord first = RequestMetricsServiceImpl.this.records.poll(1, TimeUnit.SECONDS);
+                    if (first != null) {
+                        this.batch.add(first);
+                        RequestMetricsServiceImpl.this.records.drainTo(this.batch, DRAIN_BATCH_SIZE - 1);
+                        aggregate();
+                    }
+                    if (System.currentTimeMillis() - this.intervalStartedAt >= LOG_INTERVAL_MILLIS) {
+                        logInterval();
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (final RuntimeException e) {
+                    logger.error("Failed to aggregate request metrics", e);
+                    this.batch.clear();
+                }
+            }
+        }
+
+        private void aggregate() {
+            for (final RequestMetricsRecord record : this.batch) {
+                String endpoint = record.endpoint;
+                String key = histogramKey(record.tenantIdentifier, record.method, endpoint);
+                if (!this.histogramKeys.contains(key)) {
+                    if (this.histogramKeys.size() < MAX_HISTOGRAMS) {
+                        this.histogramKeys.add(key);
+                    } else {
+                        endpoint = OTHER_ENDPOINT;
+                        key = histogramKey(record.tenantIdentifier, record.method, endpoint);
+                    }
+                }
+                RequestLatencyHistogram histogram = this.interval.get(key);
+                if (histogram == null) {
+                    histogram = new RequestLatencyHistogram(record.tenantIdentifier, record.method, endpoint);
+                    this.interval.put(key, histogram);
+                }
+                histogram.record(record.completedAt, record.elapsedMillis);
+            }
+            this.batch.clear();
+        }
+
+        private void logInterval() {
+            if (!this.interval.isEmpty()) {
+                final List<RequestMetricsData> intervalMetrics = new ArrayList<>(this.interval.size());
+                for (final Map.Entry<String, RequestLatencyHistogram> entry : this.interval.entrySet()) {
+                    intervalMetrics.add(entry.getValue().toData());
+                    final RequestLatencyHistogram total = RequestMetricsServiceImpl.this.histograms.get(entry.getKey());
+                    if (total == null) {
+                        RequestMetricsServiceImpl.this.histograms.put(entry.getKey(), entry.getValue());
+                    } else {
+                        total.merge(entry.getValue());
+                    }
+                }
+                logger.info(RequestMetricsServiceImpl.this.toApiJsonSerializer.serialize(intervalMetrics));
+            }
+            final long dropped = RequestMetricsServiceImpl.this.droppedRecords.getAndSet(0);
+            if (dropped > 0) {
+                logger.warn("Dropped " + dropped + " request metrics records because the queue was full");
+            }
+            this.interval = new HashMap<>();
+            this.intervalStartedAt = System.currentTimeMillis();
+        }
+    }
+}
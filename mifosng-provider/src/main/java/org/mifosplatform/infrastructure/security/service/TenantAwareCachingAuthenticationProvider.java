@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.service;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authentication.encoding.ShaPasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Used in securityContext.xml as the authentication provider.
+ * 
+ * Remembers the user loaded for a verified set of basic auth credentials in the
+ * 'authenticatedUsers' cache, so repeated requests with the same credentials
+ * skip the user lookup and password check. Entries are keyed by tenant,
+ * username and a salted digest of the password, so the plain text password is
+ * never held by the cache. The cache is cleared whenever users, roles or
+ * permissions change.
+ */
+public class TenantAwareCachingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final ShaPasswordEncoder credentialsEncoder = new ShaPasswordEncoder(256);
+    private CacheManager cacheManager;
+
+    @Override
+    public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Object credentials = authentication.getCredentials();
+        if (tenant == null || authentication.getName() == null || credentials == null) { return super.authenticate(authentication); }
+
+        final Cache authenticatedUsers = this.cacheManager.getCache("authenticatedUsers");
+        final String credentialsKey = credentialsKey(tenant.getTenantIdentifier(), authentication.getName(), credentials.toString());
+
+        final ValueWrapper cachedUser = authenticatedUsers.get(credentialsKey);
+        if (cachedUser != null) {
+            final UserDetails user = (UserDetails) cachedUser.get();
+            getPreAuthenticationChecks().check(user);
+            getPostAuthenticationChecks().check(user);
+            return createSuccessAuthentication(user, authentication, user);
+        }
+
+        final Authentication result = super.authenticate(authentication);
+        if (result.getPrincipal() instanceof UserDetails) {
+            authenticatedUsers.put(credentialsKey, result.getPrincipal());
+        }
+        return result;
+    }
+
+    private String credentialsKey(final String tenantIdentifier, final String username, final String password) {
+        final String salt = tenantIdentifier + ":" + username;
+        return salt + ":" + this.credentialsEncoder.encodePassword(password, salt);
+    }
+
+    public void setCacheManager(final CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.List;
 
 import org.mifosplatform.organisation.workingdays.exception.WorkingDaysNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 /**
@@ -34,14 +35,17 @@ public class WorkingDaysRepositoryWrapper {
         return workingDaysList.get(0);
     }
 
+    @CacheEvict(value = "loanSchedulePreviews", allEntries = true)
     public void save(final WorkingDays workingDays) {
         this.repository.save(workingDays);
     }
 
+    @CacheEvict(value = "loanSchedulePreviews", allEntries = true)
     public void saveAndFlush(final WorkingDays workingDays) {
         this.repository.saveAndFlush(workingDays);
     }
 
+    @CacheEvict(value = "loanSchedulePreviews", allEntries = true)
     public void delete(final WorkingDays workingDays) {
         this.repository.delete(workingDays);
     }
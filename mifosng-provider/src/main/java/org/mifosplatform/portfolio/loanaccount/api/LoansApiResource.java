@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.portfolio.loanaccount.api;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -36,8 +37,12 @@ import org.mifosplatform.infrastructure.codes.service.CodeValueReadPlatformServi
 import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
 import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
+import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+import org.mifosplatform.infrastructure.core.exception.InvalidJsonException;
+import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
@@ -76,7 +81,6 @@ import org.mifosplatform.portfolio.loanaccount.exception.NotSupportedLoanTemplat
 import org.mifosplatform.portfolio.loanaccount.guarantor.data.GuarantorData;
 import org.mifosplatform.portfolio.loanaccount.guarantor.service.GuarantorReadPlatformService;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
-import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.service.LoanScheduleCalculationPlatformService;
 import org.mifosplatform.portfolio.loanaccount.service.LoanChargeReadPlatformService;
 import org.mifosplatform.portfolio.loanaccount.service.LoanReadPlatformService;
@@ -94,6 +98,7 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 
 @Path("/loans")
@@ -505,10 +510,33 @@ public class LoansApiResource {
             final JsonElement parsedQuery = this.fromJsonHelper.parse(apiRequestBodyAsJson);
             final JsonQuery query = JsonQuery.from(apiRequestBodyAsJson, parsedQuery, this.fromJsonHelper);
 
-            final LoanScheduleModel loanSchedule = this.calculationPlatformService.calculateLoanSchedule(query, true);
+            final LoanScheduleData loanSchedule = this.calculationPlatformService.previewLoanSchedule(query);
 
             final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-            return this.loanScheduleToApiJsonSerializer.serialize(settings, loanSchedule.toData(), new HashSet<String>());
+            return this.loanScheduleToApiJsonSerializer.serialize(settings, loanSchedule, new HashSet<String>());
+        }
+
+        if (is(commandParam, "calculateLoanSchedules")) {
+
+            final JsonElement parsedBody = this.fromJsonHelper.parse(apiRequestBodyAsJson);
+            if (parsedBody == null) { throw new InvalidJsonException(); }
+            if (!isJsonArrayOfObjects(parsedBody)) {
+                final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+                new DataValidatorBuilder(dataValidationErrors).resource("loan").parameter("calculateLoanSchedules")
+                        .failWithCode("not.an.array.of.loan.applications");
+                throw new PlatformApiDataValidationException(dataValidationErrors);
+            }
+
+            final JsonArray parsedQueries = parsedBody.getAsJsonArray();
+            final List<JsonQuery> queries = new ArrayList<>(parsedQueries.size());
+            for (final JsonElement parsedQuery : parsedQueries) {
+                queries.add(JsonQuery.from(parsedQuery.toString(), parsedQuery, this.fromJsonHelper));
+            }
+
+            final List<LoanScheduleData> loanSchedules = this.calculationPlatformService.previewLoanSchedules(queries);
+
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+            return this.loanScheduleToApiJsonSerializer.serialize(settings, loanSchedules, new HashSet<String>());
         }
 
         final CommandWrapper commandRequest = new CommandWrapperBuilder().createLoanApplication().withJson(apiRequestBodyAsJson).build();
@@ -597,4 +625,12 @@ public class LoansApiResource {
     private boolean is(final String commandParam, final String commandValue) {
         return StringUtils.isNotBlank(commandParam) && commandParam.trim().equalsIgnoreCase(commandValue);
     }
-}
\ No newline at end of file
+
+    private static boolean isJsonArrayOfObjects(final JsonElement element) {
+        if (!element.isJsonArray()) { return false; }
+        for (final JsonElement arrayElement : element.getAsJsonArray()) {
+            if (!arrayElement.isJsonObject()) { return false; }
+        }
+        return true;
+    }
+}
@@ -6,10 +6,14 @@
 package org.mifosplatform.portfolio.loanaccount.domain;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.portfolio.calendar.domain.CalendarInstance;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleRepaymentCommand;
 import org.mifosplatform.portfolio.paymentdetail.domain.PaymentDetail;
 
 public interface LoanAccountDomainService {
@@ -18,6 +22,20 @@ public interface LoanAccountDomainService {
             BigDecimal transactionAmount, PaymentDetail paymentDetail, String noteText, String txnExternalId,
             final boolean isRecoveryRepayment, boolean isAccountTransfer);
 
+    /**
+     * Makes the repayments of a collection sheet against loans that were
+     * loaded together. The persistence context is flushed once after all
+     * repayments are applied and the journal entries of every loan are posted
+     * after that flush.
+     * 
+     * @param loans
+     *            loans of the collection sheet by id
+     * @return one result per repayment command, in command order, carrying
+     *         the new repayment transaction id as entity id
+     */
+    List<CommandProcessingResult> makeBulkRepayment(Map<Long, Loan> loans, SingleRepaymentCommand[] repaymentCommands,
+            LocalDate transactionDate, String noteText);
+
     LoanTransaction makeRefund(Long accountId, CommandProcessingResultBuilder builderResult, LocalDate transactionDate,
             BigDecimal transactionAmount, PaymentDetail paymentDetail, String noteText, String txnExternalId);
 
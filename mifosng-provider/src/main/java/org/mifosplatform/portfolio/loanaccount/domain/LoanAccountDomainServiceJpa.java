@@ -9,6 +9,8 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,6 +20,7 @@ import org.joda.time.LocalDate;
 import org.mifosplatform.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
@@ -40,6 +43,7 @@ import org.mifosplatform.portfolio.calendar.domain.CalendarInstanceRepository;
 import org.mifosplatform.portfolio.calendar.service.CalendarUtils;
 import org.mifosplatform.portfolio.client.domain.Client;
 import org.mifosplatform.portfolio.client.exception.ClientNotActiveException;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleRepaymentCommand;
 import org.mifosplatform.portfolio.common.domain.DaysInMonthType;
 import org.mifosplatform.portfolio.common.domain.DaysInYearType;
 import org.mifosplatform.portfolio.common.domain.PeriodFrequencyType;
@@ -207,6 +211,155 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
         return newRepaymentTransaction;
     }
 
+    @Transactional
+    @Override
+    public List<CommandProcessingResult> makeBulkRepayment(final Map<Long, Loan> loans,
+            final SingleRepaymentCommand[] repaymentCommands, final LocalDate transactionDate, final String noteText) {
+
+        final List<CommandProcessingResultBuilder> builderResults = new ArrayList<>(repaymentCommands.length);
+        final List<CommandProcessingResult> results = new ArrayList<>(repaymentCommands.length);
+        if (repaymentCommands.length == 0) { return results; }
+
+        // same for every loan of the collection sheet
+        final boolean allowTransactionsOnHoliday = this.configurationDomainService.allowTransactionsOnHolidayEnabled();
+        final WorkingDays workingDays = this.workingDaysRepository.findOne();
+        final boolean allowTransactionsOnNonWorkingDay = this.configurationDomainService.allowTransactionsOnNonWorkingDayEnabled();
+        final boolean isRescheduleRepaymentsOnHolidaysEnabled = this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled();
+        final Map<Long, List<Holiday>> holidaysByOffice = new HashMap<>();
+        final Map<String, ApplicationCurrency> applicationCurrencies = new HashMap<>();
+
+        // transaction ids of every loan before its first repayment of the
+        // sheet, journal entries are derived against these
+        final Map<Long, List<Long>> existingTransactionIdsByLoan = new LinkedHashMap<>();
+        final Map<Long, List<Long>> existingReversedTransactionIdsByLoan = new HashMap<>();
+        final List<LoanTransaction> repaymentTransactions = new ArrayList<>(repaymentCommands.length);
+
+        for (final SingleRepaymentCommand repaymentCommand : repaymentCommands) {
+            final Loan loan = loans.get(repaymentCommand.getLoanId());
+            checkClientOrGroupActive(loan);
+
+            final List<Long> existingTransactionIds = new ArrayList<>();
+            final List<Long> existingReversedTransactionIds = new ArrayList<>();
+            if (!existingTransactionIdsByLoan.containsKey(loan.getId())) {
+                existingTransactionIdsByLoan.put(loan.getId(), existingTransactionIds);
+                existingReversedTransactionIdsByLoan.put(loan.getId(), existingReversedTransactionIds);
+            }
+
+            final Money repaymentAmount = Money.of(loan.getCurrency(), repaymentCommand.getTransactionAmount());
+            final PaymentDetail paymentDetail = null;
+            final LoanTransaction newRepaymentTransaction = LoanTransaction.repayment(loan.getOffice(), repaymentAmount, paymentDetail,
+                    transactionDate, null);
+
+            List<Holiday> holidays = holidaysByOffice.get(loan.getOfficeId());
+            if (holidays == null) {
+                holidays = this.holidayRepository.findByOfficeIdAndGreaterThanDate(loan.getOfficeId(), transactionDate.toDate(),
+                        HolidayStatusType.ACTIVE.getValue());
+                holidaysByOffice.put(loan.getOfficeId(), holidays);
+            }
+
+            CalendarInstance restCalendarInstance = null;
+            ApplicationCurrency applicationCurrency = null;
+            LocalDate calculatedRepaymentsStartingFromDate = null;
+            boolean isHolidayEnabled = false;
+            if (loan.repaymentScheduleDetail().isInterestRecalculationEnabled()) {
+                restCalendarInstance = calendarInstanceRepository.findCalendarInstaneByEntityId(loan.loanInterestRecalculationDetailId(),
+                        CalendarEntityType.LOAN_RECALCULATION_DETAIL.getValue());
+
+                applicationCurrency = retrieveApplicationCurrency(loan.getCurrency(), applicationCurrencies);
+                final CalendarInstance calendarInstance = this.calendarInstanceRepository.findCalendarInstaneByEntityId(loan.getId(),
+                        CalendarEntityType.LOANS.getValue());
+                calculatedRepaymentsStartingFromDate = getCalculatedRepaymentsStartingFromDate(loan.getDisbursementDate(), loan,
+                        calendarInstance);
+
+                isHolidayEnabled = isRescheduleRepaymentsOnHolidaysEnabled;
+            }
+
+            final boolean isRecoveryRepayment = false;
+            final ChangedTransactionDetail changedTransactionDetail = loan.makeRepayment(newRepaymentTransaction,
+                    defaultLoanLifecycleStateMachine(), existingTransactionIds, existingReversedTransactionIds, allowTransactionsOnHoliday,
+                    holidays, workingDays, allowTransactionsOnNonWorkingDay, isHolidayEnabled, isRecoveryRepayment, this.loanScheduleFactory,
+                    applicationCurrency, calculatedRepaymentsStartingFromDate, restCalendarInstance);
+
+            saveLoanTransactionWithDataIntegrityViolationChecks(newRepaymentTransaction);
+
+            if (changedTransactionDetail == null) {
+                saveNewRepaymentScheduleInstallments(loan);
+            } else {
+                // a back dated repayment replaces later transactions, keep the
+                // flush ordering of the single repayment for this edge case
+                saveAndFlushLoanWithDataIntegrityViolationChecks(loan);
+                for (Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
+                    saveLoanTransactionWithDataIntegrityViolationChecks(mapEntry.getValue());
+                    loan.getLoanTransactions().add(mapEntry.getValue());
+                    updateLoanTransaction(mapEntry.getKey(), mapEntry.getValue());
+                }
+            }
+
+            if (StringUtils.isNotBlank(noteText)) {
+                final Note note = Note.loanTransactionNote(loan, newRepaymentTransaction, noteText);
+                this.noteRepository.save(note);
+            }
+
+            // transaction ids are only known after the flush below
+            builderResults.add(new CommandProcessingResultBuilder().withLoanId(loan.getId()) //
+                    .withOfficeId(loan.getOfficeId()) //
+                    .withClientId(loan.getClientId()) //
+                    .withGroupId(loan.getGroupId()));
+            repaymentTransactions.add(newRepaymentTransaction);
+        }
+
+        flushLoansWithDataIntegrityViolationChecks();
+
+        final boolean isAccountTransfer = false;
+        for (final Map.Entry<Long, List<Long>> existingTransactionIds : existingTransactionIdsByLoan.entrySet()) {
+            final Loan loan = loans.get(existingTransactionIds.getKey());
+            final ApplicationCurrency applicationCurrency = retrieveApplicationCurrency(loan.getCurrency(), applicationCurrencies);
+            final Map<String, Object> accountingBridgeData = loan.deriveAccountingBridgeData(applicationCurrency.toData(),
+                    existingTransactionIds.getValue(), existingReversedTransactionIdsByLoan.get(loan.getId()), isAccountTransfer);
+            this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
+
+            recalculateAccruals(loan);
+        }
+
+        for (int i = 0; i < repaymentTransactions.size(); i++) {
+            results.add(builderResults.get(i).withEntityId(repaymentTransactions.get(i).getId()).build());
+        }
+        return results;
+    }
+
+    private ApplicationCurrency retrieveApplicationCurrency(final MonetaryCurrency currency,
+            final Map<String, ApplicationCurrency> applicationCurrencies) {
+        ApplicationCurrency applicationCurrency = applicationCurrencies.get(currency.getCode());
+        if (applicationCurrency == null) {
+            applicationCurrency = this.applicationCurrencyRepositoryWrapper.findOneWithNotFoundDetection(currency);
+            applicationCurrencies.put(currency.getCode(), applicationCurrency);
+        }
+        return applicationCurrency;
+    }
+
+    private void saveNewRepaymentScheduleInstallments(final Loan loan) {
+        for (final LoanRepaymentScheduleInstallment installment : loan.fetchRepaymentScheduleInstallments()) {
+            if (installment.getId() == null) {
+                this.repaymentScheduleInstallmentRepository.save(installment);
+            }
+        }
+    }
+
+    private void flushLoansWithDataIntegrityViolationChecks() {
+        try {
+            this.loanRepository.flush();
+        } catch (final DataIntegrityViolationException e) {
+            final Throwable realCause = e.getCause();
+            final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+            final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors).resource("loan.transaction");
+            if (realCause.getMessage().toLowerCase().contains("external_id_unique")) {
+                baseDataValidator.reset().parameter("externalId").failWithCode("value.must.be.unique");
+            }
+            if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist",
+                    "Validation errors exist.", dataValidationErrors); }
+        }
+    }
+
     private void saveLoanTransactionWithDataIntegrityViolationChecks(LoanTransaction newRepaymentTransaction) {
         try {
             this.loanTransactionRepository.save(newRepaymentTransaction);
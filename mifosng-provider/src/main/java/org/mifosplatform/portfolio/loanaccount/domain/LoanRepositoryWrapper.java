@@ -5,6 +5,10 @@
  */
 package org.mifosplatform.portfolio.loanaccount.domain;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.mifosplatform.portfolio.loanaccount.exception.LoanNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,4 +35,21 @@ public class LoanRepositoryWrapper {
         return loan;
     }
 
+    /**
+     * Loads all loans in one query, their child collections are then fetched
+     * in batches of up to 100 loans per collection, as set by
+     * <code>@BatchSize</code> on {@link Loan}.
+     */
+    public Map<Long, Loan> findAllWithNotFoundDetection(final Collection<Long> ids) {
+        final Map<Long, Loan> loans = new HashMap<>();
+        if (ids.isEmpty()) { return loans; }
+        for (final Loan loan : this.repository.findByIdsWithClientAndGroup(ids)) {
+            loans.put(loan.getId(), loan);
+        }
+        for (final Long id : ids) {
+            if (!loans.containsKey(id)) { throw new LoanNotFoundException(id); }
+        }
+        return loans;
+    }
+
 }
\ No newline at end of file
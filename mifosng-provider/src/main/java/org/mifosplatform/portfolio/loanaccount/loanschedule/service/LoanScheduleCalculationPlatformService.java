@@ -5,10 +5,27 @@
  */
 package org.mifosplatform.portfolio.loanaccount.loanschedule.service;
 
+import java.util.List;
+
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
 
 public interface LoanScheduleCalculationPlatformService {
 
     LoanScheduleModel calculateLoanSchedule(JsonQuery query, Boolean validateParams);
+
+    /**
+     * Calculates a schedule for display only. Schedules are remembered per
+     * normalized request, so repeating a calculation while loan terms are being
+     * edited does not regenerate it.
+     */
+    LoanScheduleData previewLoanSchedule(JsonQuery query);
+
+    /**
+     * Calculates the schedules of several loan term variants in parallel, in
+     * the order of the given queries. The number of variants is limited and
+     * a request is turned away while the calculation workers are saturated.
+     */
+    List<LoanScheduleData> previewLoanSchedules(List<JsonQuery> queries);
 }
@@ -7,13 +7,31 @@ package org.mifosplatform.portfolio.loanaccount.loanschedule.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.portfolio.accountdetails.domain.AccountType;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
 import org.mifosplatform.portfolio.loanaccount.serialization.CalculateLoanScheduleQueryFromApiJsonHelper;
 import org.mifosplatform.portfolio.loanaccount.serialization.LoanApplicationCommandFromApiJsonHelper;
@@ -23,11 +41,26 @@ import org.mifosplatform.portfolio.loanproduct.domain.LoanProductRepository;
 import org.mifosplatform.portfolio.loanproduct.exception.LoanProductNotFoundException;
 import org.mifosplatform.portfolio.loanproduct.serialization.LoanProductDataValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
 @Service
 public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleCalculationPlatformService {
 
+    private static final String LOAN_SCHEDULE_PREVIEW_CACHE = "loanSchedulePreviews";
+    private static final int PREVIEW_WORKER_THREAD_COUNT = 4;
+    private static final int PREVIEW_WORKER_QUEUE_CAPACITY = 100;
+    private static final int MAX_PREVIEW_VARIANTS = 20;
+
     private final CalculateLoanScheduleQueryFromApiJsonHelper fromApiJsonDeserializer;
     private final LoanScheduleAssembler loanScheduleAssembler;
     private final FromJsonHelper fromJsonHelper;
@@ -35,12 +68,15 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
     private final LoanProductDataValidator loanProductCommandFromApiJsonDeserializer;
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanApplicationCommandFromApiJsonHelper loanApiJsonDeserializer;
+    private final RuntimeDelegatingCacheManager cacheManager;
+    private final ThreadPoolExecutor previewWorkerPool;
 
     @Autowired
     public LoanScheduleCalculationPlatformServiceImpl(final CalculateLoanScheduleQueryFromApiJsonHelper fromApiJsonDeserializer,
             final LoanScheduleAssembler loanScheduleAssembler, final FromJsonHelper fromJsonHelper,
             final LoanProductRepository loanProductRepository, final LoanProductDataValidator loanProductCommandFromApiJsonDeserializer,
-            final LoanReadPlatformService loanReadPlatformService, final LoanApplicationCommandFromApiJsonHelper loanApiJsonDeserializer) {
+            final LoanReadPlatformService loanReadPlatformService, final LoanApplicationCommandFromApiJsonHelper loanApiJsonDeserializer,
+            @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheManager) {
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.loanScheduleAssembler = loanScheduleAssembler;
         this.fromJsonHelper = fromJsonHelper;
@@ -48,6 +84,26 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         this.loanProductCommandFromApiJsonDeserializer = loanProductCommandFromApiJsonDeserializer;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanApiJsonDeserializer = loanApiJsonDeserializer;
+        this.cacheManager = cacheManager;
+        // shared by all tenants: a full queue turns further bulk previews away
+        // instead of letting them pile up behind each other
+        this.previewWorkerPool = new ThreadPoolExecutor(PREVIEW_WORKER_THREAD_COUNT, PREVIEW_WORKER_THREAD_COUNT, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(PREVIEW_WORKER_QUEUE_CAPACITY), new ThreadFactory() {
+
+                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "loan-schedule-preview-worker-" + this.threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.previewWorkerPool.shutdownNow();
     }
 
     @Override
@@ -83,4 +139,121 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
 
         return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
     }
-}
\ No newline at end of file
+
+    @Override
+    public LoanScheduleData previewLoanSchedule(final JsonQuery query) {
+        final String scheduleKey = normalizedJson(query.parsedJson());
+        final Cache loanSchedulePreviews = this.cacheManager.getCache(LOAN_SCHEDULE_PREVIEW_CACHE);
+
+        final ValueWrapper cachedSchedule = loanSchedulePreviews.get(scheduleKey);
+        if (cachedSchedule != null) { return (LoanScheduleData) cachedSchedule.get(); }
+
+        final LoanScheduleData loanSchedule = calculateLoanSchedule(query, true).toData();
+        loanSchedulePreviews.put(scheduleKey, loanSchedule);
+        return loanSchedule;
+    }
+
+    @Override
+    public List<LoanScheduleData> previewLoanSchedules(final List<JsonQuery> queries) {
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        new DataValidatorBuilder(dataValidationErrors).resource("loan").parameter("calculateLoanSchedules").value(queries.size())
+                .notGreaterThanMax(MAX_PREVIEW_VARIANTS);
+        if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException(dataValidationErrors); }
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        final List<Future<LoanScheduleData>> calculations = new ArrayList<>(queries.size());
+        final List<LoanScheduleData> loanSchedules = new ArrayList<>(queries.size());
+        try {
+            for (final JsonQuery query : queries) {
+                calculations.add(this.previewWorkerPool.submit(new LoanSchedulePreviewWorker(tenant, securityContext, query)));
+            }
+            for (final Future<LoanScheduleData> calculation : calculations) {
+                loanSchedules.add(calculation.get());
+            }
+        } catch (final RejectedExecutionException e) {
+            throw new PlatformServiceUnavailableException("error.msg.loan.schedule.preview.queue.full",
+                    "Too many loan schedule previews are being calculated, try again later");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            // surface the validation error of the first failing variant as is
+            if (e.getCause() instanceof RuntimeException) { throw (RuntimeException) e.getCause(); }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (final Future<LoanScheduleData> calculation : calculations) {
+                calculation.cancel(true);
+            }
+        }
+        return loanSchedules;
+    }
+
+    /**
+     * Renders the request with the members of every object in name order, so
+     * requests that only differ in member order share a schedule.
+     */
+    private static String normalizedJson(final JsonElement element) {
+        if (element == null || element.isJsonNull()) { return "null"; }
+        if (element.isJsonPrimitive()) { return element.toString(); }
+
+        final StringBuilder normalized = new StringBuilder();
+        if (element.isJsonArray()) {
+            final JsonArray array = element.getAsJsonArray();
+            normalized.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    normalized.append(',');
+                }
+                normalized.append(normalizedJson(array.get(i)));
+            }
+            return normalized.append(']').toString();
+        }
+
+        final JsonObject object = element.getAsJsonObject();
+        final Map<String, JsonElement> sortedMembers = new TreeMap<>();
+        for (final Map.Entry<String, JsonElement> member : object.entrySet()) {
+            sortedMembers.put(member.getKey(), member.getValue());
+        }
+        normalized.append('{');
+        boolean first = true;
+        for (final Map.Entry<String, JsonElement> member : sortedMembers.entrySet()) {
+            if (!first) {
+                normalized.append(',');
+            }
+            first = false;
+            normalized.append(new JsonPrimitive(member.getKey()).toString()).append(':').append(normalizedJson(member.getValue()));
+        }
+        return normalized.append('}').toString();
+    }
+
+    /**
+     * Calculates one schedule variant on a pool thread with the tenant and the
+     * authenticated user of the request bound to it.
+     */
+    private final class LoanSchedulePreviewWorker implements Callable<LoanScheduleData> {
+
+        private final MifosPlatformTenant tenant;
+        private final SecurityContext securityContext;
+        private final JsonQuery query;
+
+        public LoanSchedulePreviewWorker(final MifosPlatformTenant tenant, final SecurityContext securityContext, final JsonQuery query) {
+            this.tenant = tenant;
+            this.securityContext = securityContext;
+            this.query = query;
+        }
+
+        @Override
+        public LoanScheduleData call() {
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            SecurityContextHolder.setContext(this.securityContext);
+            try {
+                return previewLoanSchedule(this.query);
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+}
@@ -7,8 +7,15 @@ package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -24,6 +31,9 @@ import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.portfolio.common.domain.DaysInMonthType;
 import org.mifosplatform.portfolio.common.domain.DaysInYearType;
 import org.mifosplatform.portfolio.loanaccount.data.LoanScheduleAccrualData;
@@ -31,11 +41,12 @@ import org.mifosplatform.portfolio.loanaccount.data.LoanTransactionEnumData;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionType;
 import org.mifosplatform.portfolio.loanproduct.service.LoanEnumerations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 @Service
@@ -46,15 +57,18 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
     private final DataSource dataSource;
     private final JournalEntryWritePlatformService journalEntryWritePlatformService;
     private final JpaTransactionManager transactionManager;
+    private final PartitionedJobExecutor partitionedJobExecutor;
 
     @Autowired
     public LoanAccrualWritePlatformServiceImpl(final RoutingDataSource dataSource, final LoanReadPlatformService loanReadPlatformService,
-            final JournalEntryWritePlatformService journalEntryWritePlatformService, final JpaTransactionManager transactionManager) {
+            final JournalEntryWritePlatformService journalEntryWritePlatformService, final JpaTransactionManager transactionManager,
+            final PartitionedJobExecutor partitionedJobExecutor) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.journalEntryWritePlatformService = journalEntryWritePlatformService;
         this.transactionManager = transactionManager;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
     @Override
@@ -66,7 +80,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
             try {
                 if (!loansIds.contains(accrualData.getLoanId())) {
-                    addAccrualAccounting(accrualData);
+                    writeAccruals(Arrays.asList(accrualOf(accrualData)));
                 }
             } catch (Exception e) {
                 loansIds.add(accrualData.getLoanId());
@@ -89,18 +103,59 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         if (errors.length() > 0) { throw new JobExecutionException(errors); }
     }
 
+    /**
+     * The installments are split into chunks of whole loans (the accrual of an
+     * installment depends on the ones before it of the same loan) which are
+     * posted concurrently; chunks that fail report their errors prefixed with
+     * the loan id range they cover.
+     */
     @Override
     public String addPeriodicAccruals(final LocalDate tilldate) {
         Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate);
-        return addPeriodicAccruals(tilldate, loanScheduleAccrualDatas);
+        final List<LoanAccrualChunk> chunks = splitIntoChunks(loanScheduleAccrualDatas, SchedulerServiceConstants.DEFAULT_PARTITION_SIZE);
+
+        // each chunk adds its whole message at once so that messages of chunks
+        // failing at the same time do not interleave
+        final List<String> chunkErrors = Collections.synchronizedList(new ArrayList<String>());
+        String executionError = null;
+        try {
+            this.partitionedJobExecutor.execute(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, chunks, 1, new JobPartitionTask<LoanAccrualChunk>() {
+
+                @Override
+                public void process(final LoanAccrualChunk chunk) {
+                    final String errors = addPeriodicAccruals(tilldate, chunk.accrualDatas);
+                    if (errors.length() > 0) {
+                        chunkErrors.add(chunk + ": " + errors);
+                    }
+                }
+            });
+        } catch (final JobExecutionException e) {
+            executionError = e.getMessage();
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        synchronized (chunkErrors) {
+            for (final String errors : chunkErrors) {
+                sb.append(errors);
+            }
+        }
+        if (executionError != null) {
+            sb.append(executionError);
+        }
+        return sb.toString();
     }
 
+    /**
+     * Computes the accruals of all given installments in memory and writes
+     * them with batched statements in one transaction.
+     */
     @Override
     public String addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
         StringBuilder sb = new StringBuilder();
         Set<Long> loansIds = new HashSet<>();
         LocalDate accruredTill = null;
         Long lastLoanId = null;
+        final List<LoanAccrual> accruals = new ArrayList<>();
         for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
             try {
                 if (!loansIds.contains(accrualData.getLoanId())) {
@@ -108,28 +163,91 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                         if (accruredTill == null || lastLoanId == null || !lastLoanId.equals(accrualData.getLoanId())) {
                             accruredTill = accrualData.getAccruedTill();
                         }
-                        addAccrualTillSpecificDate(tilldate, accrualData, accruredTill);
+                        final LoanAccrual accrual = accrualTillSpecificDate(tilldate, accrualData, accruredTill);
+                        if (accrual != null) {
+                            accruals.add(accrual);
+                        }
                     } else {
-                        addAccrualAccounting(accrualData);
+                        accruals.add(accrualOf(accrualData));
                         accruredTill = accrualData.getDueDateAsLocaldate();
                     }
                 }
             } catch (Exception e) {
                 loansIds.add(accrualData.getLoanId());
-                Throwable realCause = e;
-                if (e.getCause() != null) {
-                    realCause = e.getCause();
-                }
-                sb.append("failed to add accural transaction for repayment with id " + accrualData.getRepaymentScheduleId()
-                        + " with message " + realCause.getMessage());
+                sb.append(errorMessageOf(accrualData, e));
             }
             lastLoanId = accrualData.getLoanId();
         }
+        sb.append(postAccruals(accruals));
         return sb.toString();
     }
 
-    private void addAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData,
-            final LocalDate accruredTill) throws Exception {
+    private String postAccruals(final List<LoanAccrual> accruals) {
+        if (accruals.isEmpty()) { return ""; }
+        try {
+            writeAccruals(accruals);
+            return "";
+        } catch (Exception e) {
+            final Map<Long, List<LoanAccrual>> accrualsByLoan = new LinkedHashMap<>();
+            for (final LoanAccrual accrual : accruals) {
+                List<LoanAccrual> accrualsOfLoan = accrualsByLoan.get(accrual.accrualData.getLoanId());
+                if (accrualsOfLoan == null) {
+                    accrualsOfLoan = new ArrayList<>();
+                    accrualsByLoan.put(accrual.accrualData.getLoanId(), accrualsOfLoan);
+                }
+                accrualsOfLoan.add(accrual);
+            }
+            if (accrualsByLoan.size() == 1) { return errorMessageOf(accruals.get(0).accrualData, e); }
+
+            // write the loans one by one so that a single failing loan does
+            // not hold back the accruals of the rest of the chunk
+            final StringBuilder sb = new StringBuilder();
+            for (final List<LoanAccrual> accrualsOfLoan : accrualsByLoan.values()) {
+                try {
+                    writeAccruals(accrualsOfLoan);
+                } catch (Exception loanException) {
+                    sb.append(errorMessageOf(accrualsOfLoan.get(0).accrualData, loanException));
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private static String errorMessageOf(final LoanScheduleAccrualData accrualData, final Exception e) {
+        Throwable realCause = e;
+        if (e.getCause() != null) {
+            realCause = e.getCause();
+        }
+        return "failed to add accural transaction for repayment with id " + accrualData.getRepaymentScheduleId() + " with message "
+                + realCause.getMessage();
+    }
+
+    private static List<LoanAccrualChunk> splitIntoChunks(final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas,
+            final int loansPerChunk) {
+        final List<LoanAccrualChunk> chunks = new ArrayList<>();
+        List<LoanScheduleAccrualData> chunk = new ArrayList<>();
+        int loansInChunk = 0;
+        Long lastLoanId = null;
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            if (!accrualData.getLoanId().equals(lastLoanId)) {
+                if (loansInChunk == loansPerChunk) {
+                    chunks.add(new LoanAccrualChunk(chunk));
+                    chunk = new ArrayList<>();
+                    loansInChunk = 0;
+                }
+                loansInChunk++;
+            }
+            chunk.add(accrualData);
+            lastLoanId = accrualData.getLoanId();
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(new LoanAccrualChunk(chunk));
+        }
+        return chunks;
+    }
+
+    private LoanAccrual accrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData,
+            final LocalDate accruredTill) {
         LocalDate interestStartDate = accrualData.getFromDateAsLocaldate();
         boolean isInterestStartDateEqulsInstallmentStartdate = true;
         if (accrualData.getInterestCalculatedFrom() != null
@@ -226,10 +344,9 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                 penaltyportion = null;
             }
         }
-        if (amount.compareTo(BigDecimal.ZERO) == 1) {
-            addAccrualAccounting(accrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
-                    totalAccPenalty, tilldate);
-        }
+        if (amount.compareTo(BigDecimal.ZERO) == 1) { return new LoanAccrual(accrualData, amount, interestportion, totalAccInterest,
+                feeportion, totalAccFee, penaltyportion, totalAccPenalty, tilldate); }
+        return null;
     }
 
     private int calculateTotalNumberOfDaysForMonth(final int totalNumberOfDays, final LoanScheduleAccrualData accrualData) {
@@ -264,8 +381,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         return numberOfDays;
     }
 
-    @Transactional
-    public void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData) throws Exception {
+    private LoanAccrual accrualOf(final LoanScheduleAccrualData scheduleAccrualData) {
 
         BigDecimal amount = BigDecimal.ZERO;
         BigDecimal interestportion = null;
@@ -309,33 +425,63 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                 penaltyportion = null;
             }
         }
-        addAccrualAccounting(scheduleAccrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
+        return new LoanAccrual(scheduleAccrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
                 totalAccPenalty, scheduleAccrualData.getDueDateAsLocaldate());
     }
 
-    private void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData, BigDecimal amount, BigDecimal interestportion,
-            BigDecimal totalAccInterest, BigDecimal feeportion, BigDecimal totalAccFee, BigDecimal penaltyportion,
-            BigDecimal totalAccPenalty, final LocalDate accruredTill) throws Exception {
+    private void writeAccruals(final List<LoanAccrual> accruals) throws Exception {
         TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
         try {
-            String transactionSql = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,interest_portion_derived,"
-                    + "fee_charges_portion_derived,penalty_charges_portion_derived) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?)";
-            this.jdbcTemplate.update(transactionSql, scheduleAccrualData.getLoanId(), scheduleAccrualData.getOfficeId(),
-                    LoanTransactionType.ACCRUAL.getValue(), accruredTill.toDate(), amount, interestportion, feeportion, penaltyportion);
-            final Long transactonId = this.jdbcTemplate.queryForLong("SELECT LAST_INSERT_ID()");
-
-            Map<String, Object> transactionMap = toMapData(transactonId, amount, interestportion, feeportion, penaltyportion,
-                    scheduleAccrualData, accruredTill);
+            final List<Long> transactionIds = insertAccrualTransactions(accruals);
 
             String repaymetUpdatesql = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, accrual_fee_charges_derived=?, "
                     + "accrual_penalty_charges_derived=? WHERE  id=?";
-            this.jdbcTemplate.update(repaymetUpdatesql, totalAccInterest, totalAccFee, totalAccPenalty,
-                    scheduleAccrualData.getRepaymentScheduleId());
+            this.jdbcTemplate.batchUpdate(repaymetUpdatesql, new BatchPreparedStatementSetter() {
+
+                @Override
+                public void setValues(final PreparedStatement statement, final int i) throws SQLException {
+                    final LoanAccrual accrual = accruals.get(i);
+                    statement.setBigDecimal(1, accrual.totalAccInterest);
+                    statement.setBigDecimal(2, accrual.totalAccFee);
+                    statement.setBigDecimal(3, accrual.totalAccPenalty);
+                    statement.setLong(4, accrual.accrualData.getRepaymentScheduleId());
+                }
 
+                @Override
+                public int getBatchSize() {
+                    return accruals.size();
+                }
+            });
+
+            // the accruals of a loan are in due date order, the last one wins
+            final Map<Long, LocalDate> accruedTillByLoan = new LinkedHashMap<>();
+            final Map<Long, Map<String, Object>> accountingBridgeDataByLoan = new LinkedHashMap<>();
+            for (int i = 0; i < accruals.size(); i++) {
+                final LoanAccrual accrual = accruals.get(i);
+                final Long loanId = accrual.accrualData.getLoanId();
+                accruedTillByLoan.put(loanId, accrual.accruredTill);
+
+                final Map<String, Object> transactionMap = toMapData(transactionIds.get(i), accrual.amount, accrual.interestportion,
+                        accrual.feeportion, accrual.penaltyportion, accrual.accrualData, accrual.accruredTill);
+                final Map<String, Object> accountingBridgeData = accountingBridgeDataByLoan.get(loanId);
+                if (accountingBridgeData == null) {
+                    accountingBridgeDataByLoan.put(loanId, deriveAccountingBridgeData(accrual.accrualData, transactionMap));
+                } else {
+                    @SuppressWarnings("unchecked")
+                    final List<Map<String, Object>> newLoanTransactions = (List<Map<String, Object>>) accountingBridgeData
+                            .get("newLoanTransactions");
+                    newLoanTransactions.add(transactionMap);
+                }
+            }
+
+            final List<Object[]> loanUpdates = new ArrayList<>(accruedTillByLoan.size());
+            for (final Map.Entry<Long, LocalDate> accruedTill : accruedTillByLoan.entrySet()) {
+                loanUpdates.add(new Object[] { accruedTill.getValue().toDate(), accruedTill.getKey() });
+            }
             String updateLoan = "UPDATE m_loan  SET accrued_till=?  WHERE  id=?";
-            this.jdbcTemplate.update(updateLoan, accruredTill.toDate(), scheduleAccrualData.getLoanId());
-            final Map<String, Object> accountingBridgeData = deriveAccountingBridgeData(scheduleAccrualData, transactionMap);
-            this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
+            this.jdbcTemplate.batchUpdate(updateLoan, loanUpdates);
+
+            this.journalEntryWritePlatformService.createJournalEntriesForLoans(new ArrayList<>(accountingBridgeDataByLoan.values()));
         } catch (Exception e) {
             this.transactionManager.rollback(transactionStatus);
             throw e;
@@ -343,6 +489,45 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         this.transactionManager.commit(transactionStatus);
     }
 
+    /**
+     * Inserts the accrual transactions as one batch and returns their ids in
+     * the order of the given accruals.
+     */
+    private List<Long> insertAccrualTransactions(final List<LoanAccrual> accruals) {
+        final String transactionSql = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,interest_portion_derived,"
+                + "fee_charges_portion_derived,penalty_charges_portion_derived) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?)";
+        return this.jdbcTemplate.execute(new ConnectionCallback<List<Long>>() {
+
+            @Override
+            public List<Long> doInConnection(final Connection connection) throws SQLException {
+                try (final PreparedStatement statement = connection.prepareStatement(transactionSql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (final LoanAccrual accrual : accruals) {
+                        statement.setLong(1, accrual.accrualData.getLoanId());
+                        statement.setLong(2, accrual.accrualData.getOfficeId());
+                        statement.setInt(3, LoanTransactionType.ACCRUAL.getValue());
+                        statement.setDate(4, new java.sql.Date(accrual.accruredTill.toDate().getTime()));
+                        statement.setBigDecimal(5, accrual.amount);
+                        statement.setBigDecimal(6, accrual.interestportion);
+                        statement.setBigDecimal(7, accrual.feeportion);
+                        statement.setBigDecimal(8, accrual.penaltyportion);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+
+                    final List<Long> transactionIds = new ArrayList<>(accruals.size());
+                    try (final ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        while (generatedKeys.next()) {
+                            transactionIds.add(generatedKeys.getLong(1));
+                        }
+                    }
+                    if (transactionIds.size() != accruals.size()) { throw new IllegalStateException("Expected " + accruals.size()
+                            + " generated accrual transaction ids but got " + transactionIds.size()); }
+                    return transactionIds;
+                }
+            }
+        });
+    }
+
     public Map<String, Object> deriveAccountingBridgeData(final LoanScheduleAccrualData loanScheduleAccrualData,
             final Map<String, Object> transactionMap) {
 
@@ -386,4 +571,47 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         return thisTransactionData;
     }
 
+    private static final class LoanAccrual {
+
+        private final LoanScheduleAccrualData accrualData;
+        private final BigDecimal amount;
+        private final BigDecimal interestportion;
+        private final BigDecimal totalAccInterest;
+        private final BigDecimal feeportion;
+        private final BigDecimal totalAccFee;
+        private final BigDecimal penaltyportion;
+        private final BigDecimal totalAccPenalty;
+        private final LocalDate accruredTill;
+
+        public LoanAccrual(final LoanScheduleAccrualData accrualData, final BigDecimal amount, final BigDecimal interestportion,
+                final BigDecimal totalAccInterest, final BigDecimal feeportion, final BigDecimal totalAccFee,
+                final BigDecimal penaltyportion, final BigDecimal totalAccPenalty, final LocalDate accruredTill) {
+            this.accrualData = accrualData;
+            this.amount = amount;
+            this.interestportion = interestportion;
+            this.totalAccInterest = totalAccInterest;
+            this.feeportion = feeportion;
+            this.totalAccFee = totalAccFee;
+            this.penaltyportion = penaltyportion;
+            this.totalAccPenalty = totalAccPenalty;
+            this.accruredTill = accruredTill;
+        }
+    }
+
+    private static final class LoanAccrualChunk {
+
+        private final List<LoanScheduleAccrualData> accrualDatas;
+
+        public LoanAccrualChunk(final List<LoanScheduleAccrualData> accrualDatas) {
+            this.accrualDatas = accrualDatas;
+        }
+
+        @Override
+        public String toString() {
+            final Long firstLoanId = this.accrualDatas.get(0).getLoanId();
+            final Long lastLoanId = this.accrualDatas.get(this.accrualDatas.size() - 1).getLoanId();
+            return "loans " + firstLoanId + " to " + lastLoanId;
+        }
+    }
+
 }
@@ -7,10 +7,12 @@ package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
@@ -135,6 +137,15 @@ public class LoanAssembler {
         return loanAccount;
     }
 
+    public Map<Long, Loan> assembleFrom(final Collection<Long> accountIds) {
+        final Map<Long, Loan> loanAccounts = this.loanRepository.findAllWithNotFoundDetection(accountIds);
+        for (final Loan loanAccount : loanAccounts.values()) {
+            setHelpers(loanAccount);
+        }
+
+        return loanAccounts;
+    }
+
     public void setHelpers(final Loan loanAccount) {
         loanAccount.setHelpers(defaultLoanLifecycleStateMachine(), this.loanSummaryWrapper,
                 this.loanRepaymentScheduleTransactionProcessorFactory);
@@ -1576,10 +1576,12 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         sqlBuilder.append(" and ml.is_npa = 0 ");
         sqlBuilder.append(" and mr.completed_derived is false ");
         sqlBuilder.append(" and mr.duedate < ? ");
-        sqlBuilder.append(" group by ml.id");
+        sqlBuilder.append(" and (ml.interest_recalculated_on is null or ml.interest_recalculated_on < ?) ");
+        sqlBuilder.append(" group by ml.id order by ml.id");
         try {
+            final String today = formatter.print(LocalDate.now());
             return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class,
-                    new Object[] { LoanStatus.ACTIVE.getValue(), formatter.print(LocalDate.now()) });
+                    new Object[] { LoanStatus.ACTIVE.getValue(), today, today });
         } catch (final EmptyResultDataAccessException e) {
             return null;
         }
@@ -79,6 +79,6 @@ public interface LoanWritePlatformService {
 
     CommandProcessingResult updateDisbursementDateForTranche(Long loanId, Long disbursementId, JsonCommand command);
 
-    void recalculateInterest();
+    void recalculateInterest() throws JobExecutionException;
 
 }
\ No newline at end of file
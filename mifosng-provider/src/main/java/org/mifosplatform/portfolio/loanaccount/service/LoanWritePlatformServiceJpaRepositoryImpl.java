@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -27,13 +28,15 @@ import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
-import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.domain.Holiday;
 import org.mifosplatform.organisation.holiday.domain.HolidayRepositoryWrapper;
@@ -130,7 +133,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 import com.google.gson.JsonElement;
@@ -168,6 +174,8 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     private final AccountTransferRepository accountTransferRepository;
     private final CalendarRepository calendarRepository;
     private final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public LoanWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -188,7 +196,8 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             final LoanChargeReadPlatformService loanChargeReadPlatformService, final LoanReadPlatformService loanReadPlatformService,
             final FromJsonHelper fromApiJsonHelper, final AccountTransferRepository accountTransferRepository,
             final CalendarRepository calendarRepository,
-            final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository) {
+            final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository,
+            final PartitionedJobExecutor partitionedJobExecutor, final TransactionTemplate transactionTemplate) {
         this.context = context;
         this.loanEventApiJsonValidator = loanEventApiJsonValidator;
         this.loanAssembler = loanAssembler;
@@ -217,6 +226,8 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         this.accountTransferRepository = accountTransferRepository;
         this.calendarRepository = calendarRepository;
         this.repaymentScheduleInstallmentRepository = repaymentScheduleInstallmentRepository;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.transactionTemplate = transactionTemplate;
     }
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
@@ -634,24 +645,27 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         this.context.authenticatedUser();
         final SingleRepaymentCommand[] repaymentCommand = bulkRepaymentCommand.getLoanTransactions();
         final Map<String, Object> changes = new LinkedHashMap<>();
-        final boolean isRecoveryRepayment = false;
 
         if (repaymentCommand == null) { return changes; }
-        boolean isAccountTransfer = false;
+
+        // all loans of the sheet are loaded together instead of one by one
+        final Set<Long> loanIds = new HashSet<>();
         for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
-            /****
-             * TODO Vishwas, have a re-look at this implementation, defaulting
-             * it to null for now
-             ***/
-            final Loan loan = this.loanAssembler.assembleFrom(singleLoanRepaymentCommand.getLoanId());
-            final PaymentDetail paymentDetail = null;
-            final CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder();
-            this.loanAccountDomainService.makeRepayment(loan, commandProcessingResultBuilder, bulkRepaymentCommand.getTransactionDate(),
-                    singleLoanRepaymentCommand.getTransactionAmount(), paymentDetail, bulkRepaymentCommand.getNote(), null,
-                    isRecoveryRepayment, isAccountTransfer);
+            loanIds.add(singleLoanRepaymentCommand.getLoanId());
+        }
+        final Map<Long, Loan> loans = this.loanAssembler.assembleFrom(loanIds);
+
+        /****
+         * TODO Vishwas, have a re-look at this implementation, payment details
+         * are defaulted to null for now
+         ***/
+        final List<CommandProcessingResult> repaymentResults = this.loanAccountDomainService.makeBulkRepayment(loans, repaymentCommand,
+                bulkRepaymentCommand.getTransactionDate(), bulkRepaymentCommand.getNote());
 
+        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             changes.put("bulkTransactions", singleLoanRepaymentCommand);
         }
+        changes.put("bulkTransactionResults", repaymentResults);
         return changes;
     }
 
@@ -1908,43 +1922,46 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue);
 
         if (!overdueLoanScheduledInstallments.isEmpty()) {
-            final StringBuilder sb = new StringBuilder();
+            // installments of a loan are penalized one after the other on the
+            // same worker, different loans are penalized concurrently
+            final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan = new LinkedHashMap<>();
             for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
-                try {
-
-                    final JsonElement parsedCommand = this.fromApiJsonHelper.parse(overdueInstallment.toString());
-
-                    final JsonCommand command = JsonCommand.from(overdueInstallment.toString(), parsedCommand, this.fromApiJsonHelper,
-                            null, null, null, null, null, overdueInstallment.getLoanId(), null, null, null, null);
-
-                    applyChargeToOverdueLoanInstallment(overdueInstallment.getLoanId(), overdueInstallment.getChargeId(),
-                            overdueInstallment.getPeriodNumber(), command);
-
-                } catch (final PlatformApiDataValidationException e) {
-                    final List<ApiParameterError> errors = e.getErrors();
-                    for (final ApiParameterError error : errors) {
-                        logger.error("Apply Charges due for overdue loans failed for account:" + overdueInstallment.getLoanId()
-                                + " with message " + error.getDeveloperMessage());
-                        sb.append("Apply Charges due for overdue loans failed for account:").append(overdueInstallment.getLoanId())
-                                .append(" with message ").append(error.getDeveloperMessage());
-                    }
-                } catch (final AbstractPlatformDomainRuleException ex) {
-                    logger.error("Apply Charges due for overdue loans failed for account:" + overdueInstallment.getLoanId()
-                            + " with message " + ex.getDefaultUserMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(overdueInstallment.getLoanId())
-                            .append(" with message ").append(ex.getDefaultUserMessage());
-                } catch (Exception e) {
-                    Throwable realCause = e;
-                    if (e.getCause() != null) {
-                        realCause = e.getCause();
-                    }
-                    logger.error("Apply Charges due for overdue loans failed for account:" + overdueInstallment.getLoanId()
-                            + " with message " + realCause.getMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(overdueInstallment.getLoanId())
-                            .append(" with message ").append(realCause.getMessage());
+                List<OverdueLoanScheduleData> overdueInstallmentsOfLoan = overdueInstallmentsByLoan.get(overdueInstallment.getLoanId());
+                if (overdueInstallmentsOfLoan == null) {
+                    overdueInstallmentsOfLoan = new ArrayList<>();
+                    overdueInstallmentsByLoan.put(overdueInstallment.getLoanId(), overdueInstallmentsOfLoan);
                 }
+                overdueInstallmentsOfLoan.add(overdueInstallment);
             }
-            if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+
+            this.partitionedJobExecutor.execute(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT,
+                    new ArrayList<>(overdueInstallmentsByLoan.keySet()), SchedulerServiceConstants.DEFAULT_PARTITION_SIZE,
+                    new JobPartitionTask<Long>() {
+
+                        @Override
+                        public void process(final Long loanId) {
+                            // all installments of a loan in one transaction, so
+                            // that a retried loan starts from a rolled back state
+                            LoanWritePlatformServiceJpaRepositoryImpl.this.transactionTemplate
+                                    .execute(new TransactionCallbackWithoutResult() {
+
+                                        @Override
+                                        protected void doInTransactionWithoutResult(
+                                                @SuppressWarnings("unused") final TransactionStatus status) {
+                                            applyChargeToOverdueInstallmentsOfLoan(loanId, overdueInstallmentsByLoan.get(loanId));
+                                        }
+                                    });
+                        }
+                    });
+        }
+    }
+
+    private void applyChargeToOverdueInstallmentsOfLoan(final Long loanId, final List<OverdueLoanScheduleData> overdueInstallments) {
+        for (final OverdueLoanScheduleData overdueInstallment : overdueInstallments) {
+            final JsonElement parsedCommand = this.fromApiJsonHelper.parse(overdueInstallment.toString());
+            final JsonCommand command = JsonCommand.from(overdueInstallment.toString(), parsedCommand, this.fromApiJsonHelper, null, null,
+                    null, null, null, loanId, null, null, null, null);
+            applyChargeToOverdueLoanInstallment(loanId, overdueInstallment.getChargeId(), overdueInstallment.getPeriodNumber(), command);
         }
     }
 
@@ -2178,15 +2195,34 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
 
     @Override
     @CronTarget(jobName = JobName.RECALCULATE_INTEREST_FOR_LOAN)
-    public void recalculateInterest() {
-        Collection<Long> loanIds = this.loanReadPlatformService.fetchArrearLoans();
-        for (Long loanId : loanIds) {
-            recalculateInterest(loanId);
+    public void recalculateInterest() throws JobExecutionException {
+        // loans already recalculated today, by a transaction or by an earlier
+        // (possibly interrupted) run of this job, are not returned again
+        final Collection<Long> loanIds = this.loanReadPlatformService.fetchArrearLoans();
+
+        if (loanIds != null && !loanIds.isEmpty()) {
+            // ids are in ascending order, so each partition covers a contiguous
+            // id range; every loan is recalculated in a transaction of its own
+            this.partitionedJobExecutor.execute(JobName.RECALCULATE_INTEREST_FOR_LOAN, new ArrayList<>(loanIds),
+                    SchedulerServiceConstants.DEFAULT_PARTITION_SIZE, new JobPartitionTask<Long>() {
+
+                        @Override
+                        public void process(final Long loanId) {
+                            LoanWritePlatformServiceJpaRepositoryImpl.this.transactionTemplate
+                                    .execute(new TransactionCallbackWithoutResult() {
+
+                                        @Override
+                                        protected void doInTransactionWithoutResult(
+                                                @SuppressWarnings("unused") final TransactionStatus status) {
+                                            recalculateInterest(loanId);
+                                        }
+                                    });
+                        }
+                    });
         }
     }
 
-    @Transactional
-    public void recalculateInterest(final long loanId) {
+    private void recalculateInterest(final long loanId) {
         Loan loan = this.loanAssembler.assembleFrom(loanId);
         CalendarInstance restCalendarInstance = null;
         ApplicationCurrency applicationCurrency = null;
@@ -413,6 +413,10 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
         boolean recalucateDailyBalanceDetails = false;
 
+        // every posting period has its own posting date, so the postings can
+        // be looked up once up front rather than by a scan per period
+        final Map<LocalDate, SavingsAccountTransaction> postingTransactionsByDate = retrieveInterestPostingTransactionsByDate();
+
         for (final PostingPeriod interestPostingPeriod : postingPeriods) {
 
             final LocalDate interestPostingTransactionDate = interestPostingPeriod.dateOfPostingTransaction();
@@ -422,7 +426,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
                 interestPostedToDate = interestPostedToDate.plus(interestEarnedToBePostedForPeriod);
 
-                final SavingsAccountTransaction postingTransaction = findInterestPostingTransactionFor(interestPostingTransactionDate);
+                final SavingsAccountTransaction postingTransaction = postingTransactionsByDate.get(interestPostingTransactionDate);
                 if (postingTransaction == null) {
                     final SavingsAccountTransaction newPostingTransaction = SavingsAccountTransaction.interestPosting(this, office(),
                             interestPostingTransactionDate, interestEarnedToBePostedForPeriod);
@@ -455,6 +459,17 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
     }
 
+    private Map<LocalDate, SavingsAccountTransaction> retrieveInterestPostingTransactionsByDate() {
+        final Map<LocalDate, SavingsAccountTransaction> postingTransactionsByDate = new HashMap<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            final LocalDate postingDate = transaction.transactionLocalDate();
+            if (transaction.isInterestPostingAndNotReversed() && !postingTransactionsByDate.containsKey(postingDate)) {
+                postingTransactionsByDate.put(postingDate, transaction);
+            }
+        }
+        return postingTransactionsByDate;
+    }
+
     protected SavingsAccountTransaction findInterestPostingTransactionFor(final LocalDate postingDate) {
 
         SavingsAccountTransaction postingTransation = null;
@@ -521,11 +536,14 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         final BigDecimal interestRateAsFraction = getEffectiveInterestRateAsFraction(mc, upToInterestCalculationDate);
         final Collection<Long> interestPostTransactions = this.savingsHelper.fetchPostInterestTransactionIds(getId());
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
+        // posting periods only read the transactions, so they can share one
+        // sorted copy instead of sorting the whole history once per period
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(), this.currency, compoundingPeriodType, interestCalculationType,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
                     interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
                     isInterestTransfer, minBalanceForInterestCalculation);
 
@@ -7,6 +7,7 @@ package org.mifosplatform.portfolio.savings.domain;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -20,6 +21,9 @@ public interface SavingsAccountRepository extends JpaRepository<SavingsAccount,
     @Query("from SavingsAccount s_acc where s_acc.status = :status")
     List<SavingsAccount> findSavingAccountByStatus(@Param("status") Integer status);
 
+    @Query("select s_acc.id from SavingsAccount s_acc where s_acc.status = :status and s_acc.id > :afterId order by s_acc.id")
+    List<Long> findIdsOfSavingAccountsByStatus(@Param("status") Integer status, @Param("afterId") Long afterId, Pageable pageable);
+
     @Query("from SavingsAccount sa where sa.client.id = :clientId and sa.group.id = :groupId")
     List<SavingsAccount> findByClientIdAndGroupId(@Param("clientId") Long clientId, @Param("groupId") Long groupId);
 
@@ -16,6 +16,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -37,7 +38,12 @@ import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidation
 import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.JobCheckpointService;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.service.HolidayWritePlatformService;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
@@ -80,13 +86,20 @@ import org.mifosplatform.portfolio.savings.exception.SavingsAccountTransactionNo
 import org.mifosplatform.portfolio.savings.exception.TransactionUpdateNotAllowedException;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 @Service
 public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements SavingsAccountWritePlatformService {
 
+    private static final String POST_INTEREST_RESUME_CHECKPOINT = "resume";
+    private static final int POST_INTEREST_PAGE_SIZE = 1000;
+
     private final PlatformSecurityContext context;
     private final SavingsAccountRepository savingAccountRepository;
     private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
@@ -104,6 +117,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     private final SavingsAccountChargeRepositoryWrapper savingsAccountChargeRepository;
     private final HolidayWritePlatformService holidayWritePlatformService;
     private final WorkingDaysWritePlatformService workingDaysWritePlatformService;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final JobCheckpointService jobCheckpointService;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public SavingsAccountWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -120,7 +136,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService,
             final ChargeRepositoryWrapper chargeRepository, final SavingsAccountChargeRepositoryWrapper savingsAccountChargeRepository,
             final HolidayWritePlatformService holidayWritePlatformService,
-            final WorkingDaysWritePlatformService workingDaysWritePlatformService) {
+            final WorkingDaysWritePlatformService workingDaysWritePlatformService,
+            final PartitionedJobExecutor partitionedJobExecutor, final JobCheckpointService jobCheckpointService,
+            final TransactionTemplate transactionTemplate) {
         this.context = context;
         this.savingAccountRepository = savingAccountRepository;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
@@ -138,6 +156,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.savingsAccountChargeRepository = savingsAccountChargeRepository;
         this.holidayWritePlatformService = holidayWritePlatformService;
         this.workingDaysWritePlatformService = workingDaysWritePlatformService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.jobCheckpointService = jobCheckpointService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Transactional
@@ -353,15 +374,73 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
 
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     @Override
-    public void postInterestForAccounts() {
-        final List<SavingsAccount> savingsAccounts = this.savingAccountRepository.findSavingAccountByStatus(SavingsAccountStatusType.ACTIVE
-                .getValue());
-        for (final SavingsAccount savingsAccount : savingsAccounts) {
-            this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
+    public void postInterestForAccounts() throws JobExecutionException {
+        // active accounts are paged through by id, each page is posted by the
+        // partition workers with one transaction (and persistence context) per
+        // account; the last id of every finished page is checkpointed so that
+        // a run restarted on the same day continues after it
+        final Date today = DateUtils.getLocalDateOfTenant().toDate();
+        Long lastProcessedId = null;
+        final Date checkpointTime = this.jobCheckpointService.retrieveCheckpointTime(JobName.POST_INTEREST_FOR_SAVINGS,
+                POST_INTEREST_RESUME_CHECKPOINT);
+        if (checkpointTime != null && !checkpointTime.before(today)) {
+            lastProcessedId = this.jobCheckpointService.retrieveLastProcessedId(JobName.POST_INTEREST_FOR_SAVINGS,
+                    POST_INTEREST_RESUME_CHECKPOINT);
+        } else {
+            this.jobCheckpointService.clearCheckpoint(JobName.POST_INTEREST_FOR_SAVINGS, POST_INTEREST_RESUME_CHECKPOINT);
+            this.jobCheckpointService.updateCheckpointTime(JobName.POST_INTEREST_FOR_SAVINGS, POST_INTEREST_RESUME_CHECKPOINT, today);
+        }
+        if (lastProcessedId == null) {
+            lastProcessedId = Long.valueOf(0);
+        }
+
+        final JobPartitionTask<Long> postInterestTask = new JobPartitionTask<Long>() {
+
+            @Override
+            public void process(final Long savingsId) {
+                SavingsAccountWritePlatformServiceJpaRepositoryImpl.this.transactionTemplate
+                        .execute(new TransactionCallbackWithoutResult() {
+
+                            @Override
+                            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                                postInterestForActiveAccount(savingsId);
+                            }
+                        });
+            }
+        };
+
+        final StringBuilder errors = new StringBuilder();
+        List<Long> savingsIds = retrieveActiveSavingsIdsAfter(lastProcessedId);
+        while (!savingsIds.isEmpty()) {
+            try {
+                this.partitionedJobExecutor.execute(JobName.POST_INTEREST_FOR_SAVINGS, savingsIds,
+                        SchedulerServiceConstants.DEFAULT_PARTITION_SIZE, postInterestTask);
+            } catch (final JobExecutionException e) {
+                errors.append(e.getMessage());
+            }
+            lastProcessedId = savingsIds.get(savingsIds.size() - 1);
+            this.jobCheckpointService.updateLastProcessedId(JobName.POST_INTEREST_FOR_SAVINGS, POST_INTEREST_RESUME_CHECKPOINT,
+                    lastProcessedId);
+            savingsIds = retrieveActiveSavingsIdsAfter(lastProcessedId);
+        }
+        this.jobCheckpointService.clearCheckpoint(JobName.POST_INTEREST_FOR_SAVINGS, POST_INTEREST_RESUME_CHECKPOINT);
+
+        if (errors.length() > 0) { throw new JobExecutionException(errors.toString()); }
+    }
+
+    private void postInterestForActiveAccount(final Long savingsId) {
+        final SavingsAccount savingsAccount = this.savingAccountAssembler.assembleFrom(savingsId);
+        // the account may have been closed since its id was read
+        if (savingsAccount.isActive()) {
             postInterest(savingsAccount);
         }
     }
 
+    private List<Long> retrieveActiveSavingsIdsAfter(final Long savingsId) {
+        return this.savingAccountRepository.findIdsOfSavingAccountsByStatus(SavingsAccountStatusType.ACTIVE.getValue(), savingsId,
+                new PageRequest(0, POST_INTEREST_PAGE_SIZE));
+    }
+
     @Override
     public CommandProcessingResult undoTransaction(final Long savingsId, final Long transactionId,
             final boolean allowAccountTransferModification) {
@@ -9,13 +9,13 @@ import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 
 public interface ScheduledJobRunnerService {
 
-    void updateLoanSummaryDetails();
+    Long updateLoanSummaryDetails();
 
-    void updateLoanArrearsAgeingDetails();
+    Long updateLoanArrearsAgeingDetails();
 
     void updateLoanPaidInAdvance();
 
-    void applyAnnualFeeForSavings();
+    void applyAnnualFeeForSavings() throws JobExecutionException;
 
     void applyDueChargesForSavings() throws JobExecutionException;
 
@@ -5,16 +5,31 @@
  */
 package org.mifosplatform.scheduledjobs.service;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.sql.DataSource;
+
+import org.apache.commons.lang.StringUtils;
+import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.JobCheckpointService;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobPartitionTask;
+import org.mifosplatform.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.portfolio.savings.DepositAccountType;
 import org.mifosplatform.portfolio.savings.data.DepositAccountData;
 import org.mifosplatform.portfolio.savings.data.SavingsAccountAnnualFeeData;
@@ -26,39 +41,159 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service(value = "scheduledJobRunnerService")
 public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService {
 
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
 
+    private static final String CHANGE_CAPTURE_CHECKPOINT = "changeCapture";
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
     private final RoutingDataSourceServiceFactory dataSourceServiceFactory;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountChargeReadPlatformService savingsAccountChargeReadPlatformService;
     private final DepositAccountReadPlatformService depositAccountReadPlatformService;
     private final DepositAccountWritePlatformService depositAccountWritePlatformService;
+    private final ConfigurationDomainService configurationDomainService;
+    private final JobCheckpointService jobCheckpointService;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
             final SavingsAccountChargeReadPlatformService savingsAccountChargeReadPlatformService,
             final DepositAccountReadPlatformService depositAccountReadPlatformService,
-            final DepositAccountWritePlatformService depositAccountWritePlatformService) {
+            final DepositAccountWritePlatformService depositAccountWritePlatformService,
+            final ConfigurationDomainService configurationDomainService, final JobCheckpointService jobCheckpointService,
+            final PartitionedJobExecutor partitionedJobExecutor, final TransactionTemplate transactionTemplate) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
         this.depositAccountReadPlatformService = depositAccountReadPlatformService;
         this.depositAccountWritePlatformService = depositAccountWritePlatformService;
+        this.configurationDomainService = configurationDomainService;
+        this.jobCheckpointService = jobCheckpointService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_SUMMARY)
-    public void updateLoanSummaryDetails() {
+    public Long updateLoanSummaryDetails() {
+
+        final DataSource dataSource = this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource();
+
+        final long result;
+        if (this.configurationDomainService.isIncrementalLoanSummaryUpdateEnabled()) {
+            result = updateLoanSummaryDetailsOfChangedLoans(dataSource);
+        } else {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            result = jdbcTemplate.update(buildLoanSummaryUpdateSql(null));
+            // the triggers stop recording changes while the summary is not
+            // updated incrementally and those recorded before are dropped, so
+            // the next incremental run has to start over with a full load
+            this.jobCheckpointService.clearCheckpoint(JobName.UPDATE_LOAN_SUMMARY, CHANGE_CAPTURE_CHECKPOINT);
+            jdbcTemplate.update("delete from m_loan_summary_dirty");
+        }
 
-        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return result;
+    }
+
+    /**
+     * Recomputes the summary only for loans whose repayment schedule was
+     * touched since the previous run. Every repayment, adjustment, charge and
+     * schedule regeneration goes through the schedule installments, whose
+     * triggers record the loan in <code>m_loan_summary_dirty</code> within the
+     * same transaction. The first run records every disbursed loan instead.
+     * The dirty set is then drained in chunks, each chunk committing on its
+     * own so that locks on <code>m_loan</code> are only held for a small number
+     * of rows.
+     */
+    private long updateLoanSummaryDetailsOfChangedLoans(final DataSource dataSource) {
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        if (this.jobCheckpointService.retrieveCheckpointTime(JobName.UPDATE_LOAN_SUMMARY, CHANGE_CAPTURE_CHECKPOINT) == null) {
+            final Date captureStartTime = new Date();
+            jdbcTemplate.update("insert ignore into m_loan_summary_dirty (loan_id) select ml.id from m_loan ml "
+                    + "where ml.disbursedon_date is not null");
+            this.jobCheckpointService.updateCheckpointTime(JobName.UPDATE_LOAN_SUMMARY, CHANGE_CAPTURE_CHECKPOINT, captureStartTime);
+        }
+
+        final Long configuredChunkSize = this.configurationDomainService.retrieveLoanSummaryUpdateChunkSize();
+        final int chunkSize = configuredChunkSize == null || configuredChunkSize <= 0 ? DEFAULT_CHUNK_SIZE : configuredChunkSize.intValue();
+
+        return processDirtyLoansInChunks(dataSource, "m_loan_summary_dirty", chunkSize, new LoanChunkProcessor() {
+
+            @Override
+            public void process(final JdbcTemplate chunkJdbcTemplate, final String loanIdsFilter) {
+                chunkJdbcTemplate.update(buildLoanSummaryUpdateSql(loanIdsFilter));
+            }
+        });
+    }
+
+    /**
+     * Drains the given dirty loans table in ascending loan id order. Each chunk
+     * is processed and removed from the dirty table in its own transaction, so
+     * an interrupted run leaves the unprocessed loans for the next run.
+     *
+     * A loan is only removed if its dirty row still has the version read
+     * before the chunk was recomputed. A change committed while the chunk is
+     * processed, however long its transaction ran, bumps the version and so
+     * gets its loan recomputed again by the next run.
+     */
+    private long processDirtyLoansInChunks(final DataSource dataSource, final String dirtyLoansTable, final int chunkSize,
+            final LoanChunkProcessor chunkProcessor) {
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        final TransactionTemplate chunkTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        final String nextChunkSql = "select dl.loan_id from " + dirtyLoansTable + " dl where dl.loan_id > ? order by dl.loan_id limit ?";
+
+        long loansProcessed = 0;
+        List<Long> loanIds = jdbcTemplate.queryForList(nextChunkSql, Long.class, Long.valueOf(0), chunkSize);
+        while (!loanIds.isEmpty()) {
+            final String loanIdsFilter = StringUtils.join(loanIds, ",");
+            chunkTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    final List<Object[]> dirtyVersions = jdbcTemplate.query("select dl.loan_id, dl.version from " + dirtyLoansTable
+                            + " dl where dl.loan_id in (" + loanIdsFilter + ")", new RowMapper<Object[]>() {
+
+                        @Override
+                        public Object[] mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                            return new Object[] { rs.getLong("loan_id"), rs.getLong("version") };
+                        }
+                    });
+                    chunkProcessor.process(jdbcTemplate, loanIdsFilter);
+                    if (!dirtyVersions.isEmpty()) {
+                        jdbcTemplate.batchUpdate("delete from " + dirtyLoansTable + " where loan_id = ? and version = ?", dirtyVersions);
+                    }
+                }
+            });
+            loansProcessed += loanIds.size();
+            loanIds = jdbcTemplate.queryForList(nextChunkSql, Long.class, loanIds.get(loanIds.size() - 1), chunkSize);
+        }
+
+        return loansProcessed;
+    }
+
+    private static interface LoanChunkProcessor {
+
+        void process(JdbcTemplate jdbcTemplate, String loanIdsFilter);
+    }
+
+    private String buildLoanSummaryUpdateSql(final String loanIdsFilter) {
 
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
         updateSqlBuilder.append("update m_loan ");
@@ -84,6 +219,9 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         updateSqlBuilder.append("WHERE ml.disbursedon_date is not null ");
+        if (loanIdsFilter != null) {
+            updateSqlBuilder.append("and ml.id in (").append(loanIdsFilter).append(") ");
+        }
         updateSqlBuilder.append("GROUP BY ml.id ");
         updateSqlBuilder.append(") x on x.loanId = m_loan.id ");
 
@@ -131,19 +269,65 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder
                 .append(" (x.penalty_charges_charged_derived - (x.penalty_charges_repaid_derived + x.penalty_charges_waived_derived + x.penalty_charges_writtenoff_derived))");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
-
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return updateSqlBuilder.toString();
     }
 
-    @Transactional
+    /**
+     * Rebuilds <code>m_loan_arrears_aging</code> in loan id chunks instead of
+     * truncating it: within a chunk the rows are deleted and re-inserted in one
+     * transaction, so readers keep seeing the previous figures until the new
+     * ones are committed. After the first run only loans whose schedule changed
+     * since the previous run, as recorded by the schedule triggers, or which
+     * have an installment that fell overdue since then, are recomputed; the
+     * overdue figures of all other loans cannot have changed.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
-    public void updateLoanArrearsAgeingDetails() {
+    public Long updateLoanArrearsAgeingDetails() {
+
+        final DataSource dataSource = this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        final Date captureStartTime = new Date();
+        final Date lastCaptureTime = this.jobCheckpointService.retrieveCheckpointTime(JobName.UPDATE_LOAN_ARREARS_AGEING,
+                CHANGE_CAPTURE_CHECKPOINT);
+        if (lastCaptureTime == null) {
+            jdbcTemplate.update("insert ignore into m_loan_arrears_aging_dirty (loan_id) select ml.id from m_loan ml "
+                    + "where ml.loan_status_id = 300");
+            jdbcTemplate.update("insert ignore into m_loan_arrears_aging_dirty (loan_id) select laa.loan_id from m_loan_arrears_aging laa");
+        } else {
+            // installments crossing their grace period since the last run
+            final Integer maxGraceOnArrearsAgeing = jdbcTemplate.queryForObject(
+                    "select ifnull(max(ml.grace_on_arrears_ageing), 0) from m_loan ml where ml.loan_status_id = 300", Integer.class);
+            final LocalDate lastCaptureDate = new LocalDate(lastCaptureTime).minusDays(1);
+            final StringBuilder overdueSinceLastRunSqlBuilder = new StringBuilder(500);
+            overdueSinceLastRunSqlBuilder.append("insert ignore into m_loan_arrears_aging_dirty (loan_id) ");
+            overdueSinceLastRunSqlBuilder.append("select distinct mr.loan_id from m_loan_repayment_schedule mr ");
+            overdueSinceLastRunSqlBuilder.append("join m_loan ml on ml.id = mr.loan_id ");
+            overdueSinceLastRunSqlBuilder.append("where ml.loan_status_id = 300 and mr.completed_derived is false ");
+            overdueSinceLastRunSqlBuilder.append("and mr.duedate >= ? and mr.duedate < CURDATE() ");
+            overdueSinceLastRunSqlBuilder.append("and mr.duedate >= SUBDATE(?, INTERVAL ifnull(ml.grace_on_arrears_ageing,0) day) ");
+            overdueSinceLastRunSqlBuilder.append("and mr.duedate < SUBDATE(CURDATE(), INTERVAL ifnull(ml.grace_on_arrears_ageing,0) day)");
+            jdbcTemplate.update(overdueSinceLastRunSqlBuilder.toString(), lastCaptureDate.minusDays(maxGraceOnArrearsAgeing).toDate(),
+                    lastCaptureDate.toDate());
+        }
+        this.jobCheckpointService.updateCheckpointTime(JobName.UPDATE_LOAN_ARREARS_AGEING, CHANGE_CAPTURE_CHECKPOINT, captureStartTime);
 
-        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+        final long result = processDirtyLoansInChunks(dataSource, "m_loan_arrears_aging_dirty", DEFAULT_CHUNK_SIZE,
+                new LoanChunkProcessor() {
+
+                    @Override
+                    public void process(final JdbcTemplate chunkJdbcTemplate, final String loanIdsFilter) {
+                        chunkJdbcTemplate.update("delete from m_loan_arrears_aging where loan_id in (" + loanIdsFilter + ")");
+                        chunkJdbcTemplate.update(buildLoanArrearsAgeingInsertSql(loanIdsFilter));
+                    }
+                });
 
-        jdbcTemplate.execute("truncate table m_loan_arrears_aging");
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return result;
+    }
+
+    private String buildLoanArrearsAgeingInsertSql(final String loanIdsFilter) {
 
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
 
@@ -167,13 +351,12 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
+        updateSqlBuilder.append(" and ml.id in (").append(loanIdsFilter).append(") ");
         updateSqlBuilder.append(" and mr.completed_derived is false ");
         updateSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
         updateSqlBuilder.append(" GROUP BY ml.id");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
-
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return updateSqlBuilder.toString();
     }
 
     @Transactional
@@ -213,25 +396,32 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.APPLY_ANNUAL_FEE_FOR_SAVINGS)
-    public void applyAnnualFeeForSavings() {
+    public void applyAnnualFeeForSavings() throws JobExecutionException {
 
         final Collection<SavingsAccountAnnualFeeData> annualFeeData = this.savingsAccountChargeReadPlatformService
                 .retrieveChargesWithAnnualFeeDue();
-
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : annualFeeData) {
-            try {
-                this.savingsAccountWritePlatformService.applyAnnualFee(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    logger.error("Apply annual fee failed for account:" + savingsAccountReference.getAccountNo() + " with message "
-                            + error.getDeveloperMessage());
-                }
-            } catch (final Exception ex) {
-                // need to handle this scenario
-            }
-        }
+        final Map<Long, List<SavingsAccountAnnualFeeData>> annualFeeDataByAccount = groupBySavingsAccount(annualFeeData);
+
+        this.partitionedJobExecutor.execute(JobName.APPLY_ANNUAL_FEE_FOR_SAVINGS, new ArrayList<>(annualFeeDataByAccount.keySet()),
+                SchedulerServiceConstants.DEFAULT_PARTITION_SIZE, new JobPartitionTask<Long>() {
+
+                    @Override
+                    public void process(final Long savingsAccountId) {
+                        // all charges of an account in one transaction, so that
+                        // a retried account starts from a rolled back state
+                        ScheduledJobRunnerServiceImpl.this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                            @Override
+                            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                                for (final SavingsAccountAnnualFeeData savingsAccountReference : annualFeeDataByAccount
+                                        .get(savingsAccountId)) {
+                                    ScheduledJobRunnerServiceImpl.this.savingsAccountWritePlatformService.applyAnnualFee(
+                                            savingsAccountReference.getId(), savingsAccountId);
+                                }
+                            }
+                        });
+                    }
+                });
 
         logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Savings accounts affected by update: " + annualFeeData.size());
     }
@@ -241,29 +431,52 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     public void applyDueChargesForSavings() throws JobExecutionException {
         final Collection<SavingsAccountAnnualFeeData> chargesDueData = this.savingsAccountChargeReadPlatformService
                 .retrieveChargesWithDue();
-        final StringBuilder errorMsg = new StringBuilder();
+        final Map<Long, List<SavingsAccountAnnualFeeData>> chargesDueDataByAccount = groupBySavingsAccount(chargesDueData);
 
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : chargesDueData) {
-            try {
-                this.savingsAccountWritePlatformService.applyChargeDue(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    logger.error("Apply Charges due for savings failed for account:" + savingsAccountReference.getAccountNo()
-                            + " with message " + error.getDeveloperMessage());
-                    errorMsg.append("Apply Charges due for savings failed for account:").append(savingsAccountReference.getAccountNo())
-                            .append(" with message ").append(error.getDeveloperMessage());
-                }
-            }
-        }
+        /*
+         * throws exception if any charge payment fails.
+         */
+        this.partitionedJobExecutor.execute(JobName.PAY_DUE_SAVINGS_CHARGES, new ArrayList<>(chargesDueDataByAccount.keySet()),
+                SchedulerServiceConstants.DEFAULT_PARTITION_SIZE, new JobPartitionTask<Long>() {
+
+                    @Override
+                    public void process(final Long savingsAccountId) {
+                        // all charges of an account in one transaction, so that
+                        // a retried account starts from a rolled back state
+                        ScheduledJobRunnerServiceImpl.this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                            @Override
+                            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                                for (final SavingsAccountAnnualFeeData savingsAccountReference : chargesDueDataByAccount
+                                        .get(savingsAccountId)) {
+                                    ScheduledJobRunnerServiceImpl.this.savingsAccountWritePlatformService.applyChargeDue(
+                                            savingsAccountReference.getId(), savingsAccountId);
+                                }
+                            }
+                        });
+                    }
+                });
 
         logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Savings accounts affected by update: " + chargesDueData.size());
+    }
 
-        /*
-         * throw exception if any charge payment fails.
-         */
-        if (errorMsg.length() > 0) { throw new JobExecutionException(errorMsg.toString()); }
+    /**
+     * Charges of the same account must not be applied concurrently, so they
+     * are kept together as one work item of the partitioned job and applied in
+     * one transaction.
+     */
+    private static Map<Long, List<SavingsAccountAnnualFeeData>> groupBySavingsAccount(
+            final Collection<SavingsAccountAnnualFeeData> savingsAccountCharges) {
+        final Map<Long, List<SavingsAccountAnnualFeeData>> chargesByAccount = new LinkedHashMap<>();
+        for (final SavingsAccountAnnualFeeData savingsAccountCharge : savingsAccountCharges) {
+            List<SavingsAccountAnnualFeeData> chargesOfAccount = chargesByAccount.get(savingsAccountCharge.getAccountId());
+            if (chargesOfAccount == null) {
+                chargesOfAccount = new ArrayList<>();
+                chargesByAccount.put(savingsAccountCharge.getAccountId(), chargesOfAccount);
+            }
+            chargesOfAccount.add(savingsAccountCharge);
+        }
+        return chargesByAccount;
     }
 
     @Transactional
@@ -0,0 +1,90 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.commands.annotation.CommandType;
+import org.mifosplatform.commands.exception.UnsupportedCommandException;
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.StaticApplicationContext;
+
+public class CommandHandlerProviderTest {
+
+    private StaticApplicationContext applicationContext;
+
+    @Before
+    public void setUp() {
+        this.applicationContext = new StaticApplicationContext();
+        this.applicationContext.registerSingleton("createClientCommandHandler", CreateClientCommandHandler.class);
+        this.applicationContext.registerSingleton("updateOneToOneDatatableEntryCommandHandler",
+                UpdateOneToOneDatatableEntryCommandHandler.class);
+        this.applicationContext.registerSingleton("updateOneToManyDatatableEntryCommandHandler",
+                UpdateOneToManyDatatableEntryCommandHandler.class);
+    }
+
+    @Test
+    public void shouldFindHandlerByEntityAndAction() {
+        final CommandHandlerProvider provider = refreshedProvider();
+
+        assertSame(this.applicationContext.getBean("createClientCommandHandler"),
+                provider.getHandler(new CommandWrapperBuilder().createClient().build()));
+    }
+
+    @Test
+    public void shouldFindDatatableEntryHandlerByShapeOfCommand() {
+        final CommandHandlerProvider provider = refreshedProvider();
+
+        assertSame(this.applicationContext.getBean("updateOneToOneDatatableEntryCommandHandler"),
+                provider.getHandler(new CommandWrapperBuilder().updateDatatable("extra_client_details", 1L, null).build()));
+        assertSame(this.applicationContext.getBean("updateOneToManyDatatableEntryCommandHandler"),
+                provider.getHandler(new CommandWrapperBuilder().updateDatatable("extra_client_details", 1L, 2L).build()));
+    }
+
+    @Test(expected = UnsupportedCommandException.class)
+    public void shouldRejectCommandWithoutHandler() {
+        refreshedProvider().getHandler(new CommandWrapperBuilder().activateClient(1L).build());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectTwoHandlersForSameCommand() {
+        this.applicationContext.registerSingleton("anotherCreateClientCommandHandler", AnotherCreateClientCommandHandler.class);
+
+        refreshedProvider();
+    }
+
+    private CommandHandlerProvider refreshedProvider() {
+        this.applicationContext.refresh();
+        final CommandHandlerProvider provider = new CommandHandlerProvider(this.applicationContext);
+        provider.onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+        return provider;
+    }
+
+    abstract static class StubCommandHandler implements NewCommandSourceHandler {
+
+        @Override
+        public CommandProcessingResult processCommand(final JsonCommand command) {
+            return null;
+        }
+    }
+
+    @CommandType(entity = "CLIENT", action = "CREATE")
+    public static class CreateClientCommandHandler extends StubCommandHandler {}
+
+    @CommandType(entity = "client", action = "create")
+    public static class AnotherCreateClientCommandHandler extends StubCommandHandler {}
+
+    @CommandType(entity = CommandHandlerProvider.DATATABLE_ENTRY_ENTITY, action = "UPDATE")
+    public static class UpdateOneToOneDatatableEntryCommandHandler extends StubCommandHandler {}
+
+    @CommandType(entity = CommandHandlerProvider.DATATABLE_ONE_TO_MANY_ENTRY_ENTITY, action = "UPDATE")
+    public static class UpdateOneToManyDatatableEntryCommandHandler extends StubCommandHandler {}
+}
@@ -0,0 +1,110 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.distributed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.springframework.cache.Cache;
+
+/**
+ * Near caches on top of the {@link DatabaseSharedCacheStore} used in
+ * production, which keeps no values of its own: only invalidations are written
+ * to the database, here a mocked connection.
+ */
+public class DatabaseSharedCacheStoreTest {
+
+    private static final String INSERT_INVALIDATION = "insert into m_cache_invalidation";
+
+    private Connection connection;
+    private DatabaseSharedCacheStore sharedCacheStore;
+    private DistributedCacheManager firstNode;
+    private DistributedCacheManager secondNode;
+
+    @Before
+    public void setUp() throws SQLException {
+        final RoutingDataSource dataSource = mock(RoutingDataSource.class);
+        this.connection = mock(Connection.class);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(this.connection);
+        when(this.connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeUpdate()).thenReturn(1);
+
+        this.sharedCacheStore = new DatabaseSharedCacheStore(dataSource, mock(TenantDetailsService.class));
+        this.firstNode = new DistributedCacheManager(this.sharedCacheStore);
+        this.secondNode = new DistributedCacheManager(this.sharedCacheStore);
+    }
+
+    @After
+    public void tearDown() {
+        this.sharedCacheStore.shutdown();
+    }
+
+    @Test
+    public void shouldNotWriteInvalidationWhenLoadingMissedValue() throws SQLException {
+        final Cache firstNodeCache = this.firstNode.getCache("charges");
+        final Cache secondNodeCache = this.secondNode.getCache("charges");
+
+        assertNull(firstNodeCache.get("defaultch"));
+        firstNodeCache.put("defaultch", "charges");
+        assertNull(secondNodeCache.get("defaultch"));
+        secondNodeCache.put("defaultch", "charges");
+
+        verify(this.connection, never()).prepareStatement(startsWith(INSERT_INVALIDATION));
+        assertEquals("charges", firstNodeCache.get("defaultch").get());
+        assertEquals("charges", secondNodeCache.get("defaultch").get());
+    }
+
+    @Test
+    public void shouldNotWriteInvalidationWhenMissedValueIsNull() throws SQLException {
+        final Cache cache = this.firstNode.getCache("usersByUsername");
+
+        assertNull(cache.get("unknownubu"));
+        cache.put("unknownubu", null);
+
+        verify(this.connection, never()).prepareStatement(startsWith(INSERT_INVALIDATION));
+    }
+
+    @Test
+    public void shouldWriteInvalidationWhenOverwritingValue() throws SQLException {
+        final Cache cache = this.firstNode.getCache("offices");
+        assertNull(cache.get("defaultof"));
+        cache.put("defaultof", "old");
+
+        cache.put("defaultof", "new");
+
+        verify(this.connection, times(1)).prepareStatement(startsWith(INSERT_INVALIDATION));
+        assertEquals("new", cache.get("defaultof").get());
+    }
+
+    @Test
+    public void shouldWriteInvalidationWhenEvicting() throws SQLException {
+        final Cache cache = this.firstNode.getCache("users");
+        assertNull(cache.get("defaultmifos"));
+        cache.put("defaultmifos", "mifos");
+
+        cache.evict("defaultmifos");
+
+        verify(this.connection, times(1)).prepareStatement(startsWith(INSERT_INVALIDATION));
+        assertNull(cache.get("defaultmifos"));
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.distributed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+
+/**
+ * Two {@link DistributedCacheManager}s sharing one
+ * {@link InProcessSharedCacheStore} stand in for two nodes on top of an
+ * external cache that shares values. The database store used by default only
+ * shares invalidations, see {@link DatabaseSharedCacheStoreTest}.
+ */
+public class DistributedCacheManagerTest {
+
+    private DistributedCacheManager firstNode;
+    private DistributedCacheManager secondNode;
+
+    @Before
+    public void setUp() {
+        final SharedCacheStore sharedCacheStore = new InProcessSharedCacheStore();
+        this.firstNode = new DistributedCacheManager(sharedCacheStore);
+        this.secondNode = new DistributedCacheManager(sharedCacheStore);
+    }
+
+    @Test
+    public void shouldReadValuePutOnAnotherNode() {
+        this.firstNode.getCache("charges").put("defaultch", "charges");
+
+        assertEquals("charges", this.secondNode.getCache("charges").get("defaultch").get());
+    }
+
+    @Test
+    public void shouldDropNearCacheEntryWhenAnotherNodeEvicts() {
+        final Cache firstNodeCache = this.firstNode.getCache("users");
+        final Cache secondNodeCache = this.secondNode.getCache("users");
+        firstNodeCache.put("defaultmifos", "old");
+        assertEquals("old", secondNodeCache.get("defaultmifos").get());
+
+        firstNodeCache.evict("defaultmifos");
+
+        assertNull(secondNodeCache.get("defaultmifos"));
+    }
+
+    @Test
+    public void shouldReadNewValueWhenAnotherNodeOverwrites() {
+        final Cache firstNodeCache = this.firstNode.getCache("offices");
+        final Cache secondNodeCache = this.secondNode.getCache("offices");
+        firstNodeCache.put("defaultof", "old");
+        assertEquals("old", secondNodeCache.get("defaultof").get());
+
+        firstNodeCache.put("defaultof", "new");
+
+        assertEquals("new", secondNodeCache.get("defaultof").get());
+    }
+
+    @Test
+    public void shouldDropAllNearCacheEntriesWhenAnotherNodeClears() {
+        final Cache firstNodeCache = this.firstNode.getCache("code_values");
+        final Cache secondNodeCache = this.secondNode.getCache("code_values");
+        firstNodeCache.put("default1cv", "first");
+        firstNodeCache.put("default2cv", "second");
+        secondNodeCache.get("default1cv");
+        secondNodeCache.get("default2cv");
+
+        firstNodeCache.clear();
+
+        assertNull(secondNodeCache.get("default1cv"));
+        assertNull(secondNodeCache.get("default2cv"));
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        final NearCache cache = (NearCache) this.firstNode.getCache("codes");
+        cache.get("defaultCD");
+        cache.put("defaultCD", "codes");
+        cache.get("defaultCD");
+        cache.get("defaultCD");
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldNotKeepValueReadWhileAnotherNodeInvalidates() {
+        final NearCache[] cache = new NearCache[1];
+        final SharedCacheStore racingStore = new InProcessSharedCacheStore() {
+
+            @Override
+            public Object get(final String cacheName, final Object key) {
+                final Object staleValue = super.get(cacheName, key);
+                // another node writes between the read and the local put
+                cache[0].invalidateLocal(key);
+                return staleValue;
+            }
+        };
+        racingStore.put("funds", "defaultFU", "stale");
+        cache[0] = new NearCache("funds", "node", racingStore, 10, 60);
+
+        assertEquals("stale", cache[0].get("defaultFU").get());
+        assertEquals(0, cache[0].getSize());
+    }
+
+    @Test
+    public void shouldDropNearCacheEntryWhenAnotherNodeSendsKeyAsString() {
+        final NearCache cache = (NearCache) this.firstNode.getCache("offices");
+        cache.put(Long.valueOf(1), "head office");
+
+        cache.invalidateLocal("1");
+
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void shouldBoundNearCacheEntries() {
+        final NearCache cache = new NearCache("staff", "node", new InProcessSharedCacheStore(), 2, 60);
+        cache.put("first", "1");
+        cache.put("second", "2");
+        cache.put("third", "3");
+
+        assertEquals(2, cache.getSize());
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportRunData;
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportRunStatus;
+import org.mifosplatform.infrastructure.dataqueries.service.ReportRunService;
+
+/**
+ * Byte ranges of the output of a completed report run of ten bytes.
+ */
+public class ReportRunsApiResourceTest {
+
+    private static final Long RUN_ID = 1L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ReportRunsApiResource resource;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws IOException {
+        final File output = this.temporaryFolder.newFile("1.csv");
+        Files.write(output.toPath(), "0123456789".getBytes(StandardCharsets.US_ASCII));
+
+        final ReportRunService reportRunService = mock(ReportRunService.class);
+        when(reportRunService.retrieveReportRun(RUN_ID)).thenReturn(
+                new ReportRunData(RUN_ID, "Client Listing", "CSV", ReportRunStatus.COMPLETED, new Date(), new Date(), new Date(),
+                        "application/x-msdownload", output.length(), null));
+        when(reportRunService.retrieveReportRunOutput(RUN_ID)).thenReturn(output);
+
+        this.resource = new ReportRunsApiResource(reportRunService, mock(ToApiJsonSerializer.class));
+    }
+
+    @Test
+    public void shouldReturnWholeOutputWithoutRange() throws IOException {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, null);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getMetadata().getFirst("Content-Range"));
+        assertEquals("0123456789", contentOf(response));
+    }
+
+    @Test
+    public void shouldReturnBoundedRange() throws IOException {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, "bytes=2-5");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getMetadata().getFirst("Content-Range"));
+        assertEquals("2345", contentOf(response));
+    }
+
+    @Test
+    public void shouldReturnRestOfOutputForOpenRange() throws IOException {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, "bytes=7-");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 7-9/10", response.getMetadata().getFirst("Content-Range"));
+        assertEquals("789", contentOf(response));
+    }
+
+    @Test
+    public void shouldReturnLastBytesForSuffixRange() throws IOException {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, "bytes=-3");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 7-9/10", response.getMetadata().getFirst("Content-Range"));
+        assertEquals("789", contentOf(response));
+    }
+
+    @Test
+    public void shouldReturnWholeOutputForSuffixRangeLongerThanOutput() throws IOException {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, "bytes=-99999999999999999999");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 0-9/10", response.getMetadata().getFirst("Content-Range"));
+        assertEquals("0123456789", contentOf(response));
+    }
+
+    @Test
+    public void shouldTruncateLastByteBeyondOutput() throws IOException {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, "bytes=8-20");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 8-9/10", response.getMetadata().getFirst("Content-Range"));
+        assertEquals("89", contentOf(response));
+    }
+
+    @Test
+    public void shouldRejectRangeStartingBeyondOutput() {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, "bytes=10-");
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getMetadata().getFirst("Content-Range"));
+        assertNull(response.getEntity());
+    }
+
+    @Test
+    public void shouldRejectRangeEndingBeforeItStarts() {
+        final Response response = this.resource.retrieveReportRunOutput(RUN_ID, "bytes=5-2");
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getMetadata().getFirst("Content-Range"));
+    }
+
+    @Test
+    public void shouldReturnWholeOutputForUnsupportedRanges() throws IOException {
+        for (final String range : new String[] { "bytes=-", "bytes=0-1,4-5", "items=0-1" }) {
+            final Response response = this.resource.retrieveReportRunOutput(RUN_ID, range);
+
+            assertEquals(range, 200, response.getStatus());
+            assertEquals(range, "0123456789", contentOf(response));
+        }
+    }
+
+    private static String contentOf(final Response response) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(out);
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
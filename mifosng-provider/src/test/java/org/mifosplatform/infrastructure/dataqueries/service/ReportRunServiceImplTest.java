@@ -0,0 +1,222 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataqueries.data.ReportRunData;
+import org.mifosplatform.infrastructure.dataqueries.domain.ReportRunStatus;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.KeyHolder;
+
+/**
+ * Deduplication, recovery and serving of report runs against a mocked
+ * {@link JdbcTemplate}. Runs that get to execute spool their output to the
+ * mifosx base directory of a tenant of their own, which is removed afterwards.
+ */
+public class ReportRunServiceImplTest {
+
+    private static final String TENANT_IDENTIFIER = "reportrunservicetest";
+    private static final String SELECT_RUN_IN_FLIGHT = "select rr.id from m_report_run rr where rr.run_key";
+    private static final String SELECT_RUN = "select  rr.id as id";
+    private static final String UPDATE_RUN_FINISHED = "update m_report_run set status = ?, completed_on = ?, content_type";
+    private static final String UPDATE_INTERRUPTED_RUNS = "update m_report_run set status = ?, completed_on = ?, error_message";
+
+    private JdbcTemplate jdbcTemplate;
+    private ReadReportingService readReportingService;
+    private TenantDetailsService tenantDetailsService;
+    private ReportRunServiceImpl reportRunService;
+
+    @Before
+    public void setUp() {
+        final AppUser user = mock(AppUser.class);
+        when(user.getId()).thenReturn(1L);
+        final PlatformSecurityContext context = mock(PlatformSecurityContext.class);
+        when(context.authenticatedUser()).thenReturn(user);
+
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.readReportingService = mock(ReadReportingService.class);
+        this.tenantDetailsService = mock(TenantDetailsService.class);
+        this.reportRunService = new ReportRunServiceImpl(context, this.readReportingService, this.jdbcTemplate, this.tenantDetailsService);
+
+        ThreadLocalContextUtil.setTenant(tenant(TENANT_IDENTIFIER));
+    }
+
+    @After
+    public void tearDown() {
+        this.reportRunService.shutdown();
+        ThreadLocalContextUtil.clearTenant();
+        final File spoolDir = spoolDir();
+        final File[] spoolFiles = spoolDir.listFiles();
+        if (spoolFiles != null) {
+            for (final File spoolFile : spoolFiles) {
+                spoolFile.delete();
+            }
+        }
+        spoolDir.delete();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldJoinIdenticalRunInFlightOnThisNode() throws InterruptedException {
+        final CountDownLatch reportWritten = new CountDownLatch(1);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws InterruptedException {
+                reportWritten.await();
+                return null;
+            }
+        }).when(this.readReportingService).writePentahoReport(anyString(), anyString(), any(Map.class), any(Locale.class),
+                any(OutputStream.class));
+        when(this.jdbcTemplate.queryForList(startsWith(SELECT_RUN_IN_FLIGHT), eq(Long.class), Matchers.<Object> anyVararg())).thenReturn(
+                Collections.<Long> emptyList());
+        stubInsertedRunId(3L);
+        stubRun(3L, ReportRunStatus.QUEUED);
+
+        assertEquals(Long.valueOf(3L), submitClientListing().getId());
+        assertEquals(Long.valueOf(3L), submitClientListing().getId());
+
+        verify(this.jdbcTemplate, times(1)).update(any(PreparedStatementCreator.class), any(KeyHolder.class));
+        verify(this.jdbcTemplate, times(1)).queryForList(startsWith(SELECT_RUN_IN_FLIGHT), eq(Long.class), Matchers.<Object> anyVararg());
+
+        reportWritten.countDown();
+        verify(this.jdbcTemplate, timeout(5000)).update(startsWith(UPDATE_RUN_FINISHED), eq(ReportRunStatus.COMPLETED.name()),
+                any(Date.class), eq("text/html"), eq(0L), eq(null), eq(3L));
+    }
+
+    @Test
+    public void shouldJoinIdenticalRunInFlightOnAnotherNode() {
+        when(this.jdbcTemplate.queryForList(startsWith(SELECT_RUN_IN_FLIGHT), eq(Long.class), Matchers.<Object> anyVararg())).thenReturn(
+                Arrays.asList(7L));
+        stubRun(7L, ReportRunStatus.RUNNING);
+
+        assertEquals(Long.valueOf(7L), submitClientListing().getId());
+
+        verify(this.jdbcTemplate, never()).update(any(PreparedStatementCreator.class), any(KeyHolder.class));
+        verifyZeroInteractions(this.readReportingService);
+    }
+
+    @Test
+    public void shouldFailRunsInterruptedOnThisNodeForEveryTenant() {
+        ThreadLocalContextUtil.clearTenant();
+        when(this.tenantDetailsService.findAllTenants()).thenReturn(Arrays.asList(tenant("first"), tenant("second")));
+        when(this.jdbcTemplate.update(startsWith(UPDATE_INTERRUPTED_RUNS), Matchers.<Object> anyVararg())).thenThrow(
+                new IllegalStateException()).thenReturn(2);
+
+        this.reportRunService.failInterruptedRuns();
+
+        // a tenant failing to update does not keep the others from recovering
+        verify(this.jdbcTemplate, times(2)).update(startsWith(UPDATE_INTERRUPTED_RUNS), eq(ReportRunStatus.FAILED.name()),
+                any(Date.class), anyString(), anyString(), eq(ReportRunStatus.QUEUED.name()), eq(ReportRunStatus.RUNNING.name()));
+        assertNull(ThreadLocalContextUtil.getTenant());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldServeOutputStoredByAnotherNode() throws Exception {
+        stubRun(9L, ReportRunStatus.COMPLETED);
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getBinaryStream(1)).thenReturn(new ByteArrayInputStream("<html/>".getBytes(StandardCharsets.UTF_8)));
+        when(this.jdbcTemplate.query(anyString(), any(Object[].class), any(ResultSetExtractor.class))).thenAnswer(new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Exception {
+                return ((ResultSetExtractor<?>) invocation.getArguments()[2]).extractData(rs);
+            }
+        });
+
+        final File output = this.reportRunService.retrieveReportRunOutput(9L);
+
+        assertEquals(new File(spoolDir(), "9.html"), output);
+        assertEquals("<html/>", readContentOf(output));
+    }
+
+    private ReportRunData submitClientListing() {
+        final Map<String, String> queryParams = new HashMap<>();
+        queryParams.put("R_officeId", "1");
+        return this.reportRunService.submitPentahoReport("Client Listing", "HTML", queryParams, Locale.ENGLISH);
+    }
+
+    private void stubInsertedRunId(final Long runId) {
+        when(this.jdbcTemplate.update(any(PreparedStatementCreator.class), any(KeyHolder.class))).thenAnswer(new Answer<Integer>() {
+
+            @Override
+            public Integer answer(final InvocationOnMock invocation) {
+                final KeyHolder keyHolder = (KeyHolder) invocation.getArguments()[1];
+                keyHolder.getKeyList().add(Collections.<String, Object> singletonMap("GENERATED_KEY", runId));
+                return 1;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRun(final Long runId, final ReportRunStatus status) {
+        final List<ReportRunData> runs = Arrays.asList(new ReportRunData(runId, "Client Listing", "HTML", status, new Date(), null,
+                null, null, null, null));
+        when(this.jdbcTemplate.query(startsWith(SELECT_RUN), any(RowMapper.class), Matchers.<Object> anyVararg())).thenReturn(runs);
+    }
+
+    private static MifosPlatformTenant tenant(final String tenantIdentifier) {
+        final MifosPlatformTenant tenant = mock(MifosPlatformTenant.class);
+        when(tenant.getTenantIdentifier()).thenReturn(tenantIdentifier);
+        when(tenant.getName()).thenReturn(tenantIdentifier);
+        return tenant;
+    }
+
+    private static File spoolDir() {
+        return new File(FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "reportRuns" + File.separator + TENANT_IDENTIFIER);
+    }
+
+    private static String readContentOf(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.monetary.domain;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Differential test of {@link Money} arithmetic against the original rounding
+ * rules (strip trailing zeros, round into multiples, scale half even).
+ */
+public class MoneyTest {
+
+    private static final int ITERATIONS = 100000;
+
+    private final Random random = new Random(20141017L);
+
+    @Test
+    public void arithmeticMatchesReferenceRoundingOnRandomAmounts() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            final int digitsAfterDecimal = this.random.nextInt(4);
+            final Integer inMultiplesOf = digitsAfterDecimal == 0 && this.random.nextBoolean() ? Integer.valueOf(50) : null;
+            final MonetaryCurrency currency = new MonetaryCurrency("USD", digitsAfterDecimal, inMultiplesOf);
+
+            final BigDecimal amount = randomAmount();
+            final BigDecimal other = randomAmount();
+            final BigDecimal factor = new BigDecimal(this.random.nextInt(100000)).movePointLeft(this.random.nextInt(7)).add(BigDecimal.ONE);
+            final long divisor = 1 + this.random.nextInt(360);
+
+            final Money money = Money.of(currency, amount);
+            final BigDecimal expected = reference(currency, amount);
+            assertEquals(expected, money.getAmount());
+
+            assertEquals(reference(currency, expected.add(other)), money.plus(other).getAmount());
+            assertEquals(reference(currency, expected.subtract(other)), money.minus(other).getAmount());
+            assertEquals(reference(currency, expected.multiply(factor)), money.multipliedBy(factor).getAmount());
+            assertEquals(reference(currency, expected.divide(BigDecimal.valueOf(divisor), RoundingMode.HALF_EVEN)),
+                    money.dividedBy(divisor, RoundingMode.HALF_EVEN).getAmount());
+            assertEquals(reference(currency, expected.multiply(factor).setScale(digitsAfterDecimal, RoundingMode.HALF_UP)), money
+                    .multiplyRetainScale(factor, RoundingMode.HALF_UP).getAmount());
+            assertEquals(expected, money.copy().getAmount());
+            assertEquals(expected.signum() == 0, money.isZero());
+            assertEquals(expected.signum() > 0, money.isGreaterThanZero());
+            assertEquals(expected.signum() < 0, money.isLessThanZero());
+        }
+    }
+
+    private BigDecimal randomAmount() {
+        if (this.random.nextInt(10) == 0) { return BigDecimal.ZERO.setScale(this.random.nextInt(6)); }
+        final BigDecimal amount = new BigDecimal(new BigInteger(40, this.random)).movePointLeft(this.random.nextInt(9));
+        return this.random.nextInt(5) == 0 ? amount.negate() : amount;
+    }
+
+    private static BigDecimal reference(final MonetaryCurrency currency, final BigDecimal amount) {
+        BigDecimal amountScaled = amount.stripTrailingZeros();
+        final Integer inMultiplesOf = currency.getCurrencyInMultiplesOf();
+        if (inMultiplesOf != null && currency.getDigitsAfterDecimal() == 0 && inMultiplesOf > 0 && amountScaled.doubleValue() > 0) {
+            final double existingVal = amountScaled.doubleValue();
+            final double ceilingOfValue = Money.ceiling(existingVal, inMultiplesOf);
+            final double floorOfValue = Money.floor(existingVal, inMultiplesOf);
+            if (ceilingOfValue - existingVal > existingVal - floorOfValue) {
+                amountScaled = BigDecimal.valueOf(floorOfValue);
+            } else {
+                amountScaled = BigDecimal.valueOf(ceilingOfValue);
+            }
+        }
+        return amountScaled.setScale(currency.getDigitsAfterDecimal(), RoundingMode.HALF_EVEN);
+    }
+}